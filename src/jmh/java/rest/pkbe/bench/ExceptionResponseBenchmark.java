@@ -0,0 +1,88 @@
+package rest.pkbe.bench;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import rest.pkbe.exception.GlobalExceptionHandler;
+import rest.pkbe.exception.dto.ExceptionResponse;
+import rest.pkbe.exception.exceptions.ResourceNotFoundException;
+
+/**
+ * Mide la respuesta de error de GlobalExceptionHandler (404 y 400), que además registra cada error en el log.
+ * Con logging=on el log se formatea con el patrón de consola de Spring Boot y se descarta la salida,
+ * así se mide el costo del formateo sin depender de la terminal; con logging=off solo se construye la respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionResponseBenchmark {
+
+    private static final String CONSOLE_PATTERN =
+        "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({ "on", "off" })
+    public String logging;
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private ResourceNotFoundException notFound;
+    private IllegalArgumentException badRequest;
+
+    @Setup
+    public void setup() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel("on".equals(logging) ? Level.INFO : Level.OFF);
+        if ("on".equals(logging)) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(context);
+            encoder.setPattern(CONSOLE_PATTERN);
+            encoder.start();
+            OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+            appender.setContext(context);
+            appender.setEncoder(encoder);
+            appender.setOutputStream(OutputStream.nullOutputStream());
+            appender.start();
+            root.addAppender(appender);
+        }
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/notes/42");
+        notFound = new ResourceNotFoundException("La nota no existe");
+        badRequest = new IllegalArgumentException("Cursor inválido");
+    }
+
+    @Benchmark
+    public ResponseEntity<ExceptionResponse> notFound() {
+        return handler.handleResourceNotFoundException(notFound, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ExceptionResponse> badRequest() {
+        return handler.handleIllegalArgumentException(badRequest, request);
+    }
+}
@@ -0,0 +1,95 @@
+package rest.pkbe.bench;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import rest.pkbe.config.JwtService;
+import rest.pkbe.domain.model.User;
+
+/**
+ * Mide el trabajo de JWT que hace JwtAuthenticationFilter en cada petición:
+ * - legacyFilterPath: el flujo anterior, tres verificaciones del token reconstruyendo la llave y el parser
+ * - singleParse: una sola verificación con la llave y el parser construidos al iniciar (caché desactivada)
+ * - cachedParse: igual, con la caché de claims verificados (el caso de un cliente que reutiliza su token)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "VEVTVFNFQ1JFVFRFU1RTRUNSRVRURVNUU0VDUkVUVEVTVFNFQ1JFVDEyMzQ1Njc4OTA=";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setup() {
+        uncached = jwtService(0);
+        cached = jwtService(10000);
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bench@pkbe.rest");
+        token = cached.generateToken(user);
+        userDetails = org.springframework.security.core.userdetails.User
+            .withUsername(user.getEmail()).password("x").build();
+    }
+
+    private static JwtService jwtService(int cacheMaxEntries) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "refreshExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", cacheMaxEntries);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String email = legacyClaims(token).get("email", String.class);
+        String emailAgain = legacyClaims(token).get("email", String.class);
+        Date expiration = legacyClaims(token).getExpiration();
+        return email != null && emailAgain.equals(userDetails.getUsername()) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        Claims claims = uncached.extractClaims(token);
+        return claims.get("email", String.class) != null && uncached.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean cachedParse() {
+        Claims claims = cached.extractClaims(token);
+        return claims.get("email", String.class) != null && cached.isTokenValid(claims, userDetails);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,81 @@
+package rest.pkbe.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import rest.pkbe.config.JwtService;
+
+/**
+ * Mide las operaciones de JwtService fuera del filtro (login, refresh y logout):
+ * - generateToken / generateRefreshToken: firma HS256 de un token nuevo
+ * - parse: verificación de la firma y lectura de los claims sin caché
+ * - verify: validación de claims ya verificados contra el email del usuario
+ * - hashToken: SHA-256 del token de refresco que se guarda en la base de datos
+ * El trabajo por petición autenticada (con y sin caché) se mide en JwtFilterBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "VEVTVFNFQ1JFVFRFU1RTRUNSRVRURVNUU0VDUkVUVEVTVFNFQ1JFVDEyMzQ1Njc4OTA=";
+    private static final Long USER_ID = 42L;
+    private static final String EMAIL = "bench@pkbe.rest";
+
+    private JwtService jwtService;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMs", 86_400_000L);
+        // Sin caché: parse siempre verifica la firma
+        ReflectionTestUtils.setField(jwtService, "cacheMaxEntries", 0);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        token = jwtService.generateToken(USER_ID, EMAIL);
+        claims = jwtService.extractClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(USER_ID, EMAIL);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(USER_ID);
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return jwtService.extractClaims(token);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtService.isTokenValid(claims, EMAIL);
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return jwtService.hashToken(token);
+    }
+}
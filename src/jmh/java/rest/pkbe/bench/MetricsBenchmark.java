@@ -0,0 +1,97 @@
+package rest.pkbe.bench;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * Mide el costo de las métricas en cada petición, con el registro de Prometheus:
+ * - serviceDirect / serviceTimed: una llamada a un servicio sin y con el proxy de timers de MetricsConfig
+ * - requestSummaries: las cuatro distribuciones que registra RequestMetricsFilter al terminar la petición
+ * - jwtTimer: el timer de JwtAuthenticationFilter
+ * Con -t se puede medir con varios hilos (contención en los contadores).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    public interface Lookup {
+        long find(long id);
+    }
+
+    private Lookup direct;
+    private Lookup timed;
+    private DistributionSummary statements;
+    private DistributionSummary entityLoads;
+    private DistributionSummary requestSize;
+    private DistributionSummary responseSize;
+    private Timer jwtTimer;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        MeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        direct = id -> id * 31;
+        // TimedServiceProxy es interno del paquete config, se crea una sola vez por reflexión
+        Method wrap = Class.forName("rest.pkbe.config.TimedServiceProxy")
+            .getDeclaredMethod("wrap", Object.class, Class.class, MeterRegistry.class);
+        wrap.setAccessible(true);
+        timed = (Lookup) wrap.invoke(null, direct, Lookup.class, registry);
+
+        statements = summary(registry, "statements", 1_000);
+        entityLoads = summary(registry, "entity.loads", 100_000);
+        requestSize = summary(registry, "request.size", 64L << 20);
+        responseSize = summary(registry, "response.size", 64L << 20);
+        jwtTimer = Timer.builder("jwt").publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(10_000)).maximumExpectedValue(Duration.ofSeconds(1)).register(registry);
+    }
+
+    private static DistributionSummary summary(MeterRegistry registry, String name, double max) {
+        return DistributionSummary.builder(name).tags("method", "GET", "uri", "/notes")
+            .publishPercentileHistogram().minimumExpectedValue(1.0).maximumExpectedValue(max).register(registry);
+    }
+
+    @Benchmark
+    public long serviceDirect() {
+        return direct.find(7);
+    }
+
+    @Benchmark
+    public long serviceTimed() {
+        return timed.find(7);
+    }
+
+    @Benchmark
+    public void requestSummaries() {
+        statements.record(4);
+        entityLoads.record(69);
+        requestSize.record(120);
+        responseSize.record(23_000);
+    }
+
+    @Benchmark
+    public void jwtTimer() {
+        long start = System.nanoTime();
+        jwtTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
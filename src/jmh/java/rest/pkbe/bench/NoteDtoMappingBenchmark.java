@@ -0,0 +1,91 @@
+package rest.pkbe.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rest.pkbe.api.controller.NoteController;
+import rest.pkbe.api.dto.response.note.NoteDTO;
+import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.model.NoteTag;
+import rest.pkbe.domain.model.Tag;
+
+/**
+ * Mide el mapeo Note -> NoteDTO de NoteController (por nota en cada listado):
+ * - toDTO: el método real del controller, incluye las tags y createdAt.toString().split("T")[0]
+ * - createdAtSplit / createdAtLocalDate: solo el formateo de la fecha, con split (expresión regular de un
+ *   carácter, arreglo y dos cadenas) frente a toLocalDate().toString(), que produce el mismo texto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteDtoMappingBenchmark {
+
+    // toDTO es privado, se invoca con un MethodHandle constante para no medir la reflexión
+    private static final MethodHandle TO_DTO;
+
+    static {
+        try {
+            TO_DTO = MethodHandles.privateLookupIn(NoteController.class, MethodHandles.lookup())
+                .findVirtual(NoteController.class, "toDTO", MethodType.methodType(NoteDTO.class, Note.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    @Param({ "3" })
+    public int tags;
+
+    private NoteController controller;
+    private Note note;
+    private LocalDateTime createdAt;
+
+    @Setup
+    public void setup() {
+        controller = new NoteController();
+        createdAt = LocalDateTime.of(2026, 10, 17, 12, 30, 15, 123_456_000);
+        note = new Note();
+        note.setId(42L);
+        note.setTitle("Receta de pan");
+        note.setContent("Harina, agua, sal y levadura. Amasar y hornear a 220 grados.");
+        note.setCreatedAt(createdAt);
+        for (int i = 0; i < tags; i++) {
+            Tag tag = new Tag();
+            tag.setId((long) i + 1);
+            tag.setName("tag-" + i);
+            note.getNoteTags().add(new NoteTag(note, tag));
+        }
+    }
+
+    @Benchmark
+    public NoteDTO toDTO() throws Throwable {
+        return (NoteDTO) TO_DTO.invokeExact(controller, note);
+    }
+
+    @Benchmark
+    public String createdAtSplit() {
+        return createdAt.toString().split("T")[0];
+    }
+
+    @Benchmark
+    public String createdAtLocalDate() {
+        return createdAt.toLocalDate().toString();
+    }
+}
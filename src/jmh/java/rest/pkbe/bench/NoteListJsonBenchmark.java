@@ -0,0 +1,150 @@
+package rest.pkbe.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import rest.pkbe.api.controller.NoteController;
+import rest.pkbe.api.dto.response.note.NoteDTO;
+import rest.pkbe.api.dto.response.note.NotePageDTO;
+import rest.pkbe.api.json.NoteJsonWriter;
+import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.model.NoteTag;
+import rest.pkbe.domain.model.Tag;
+
+/**
+ * Compara las dos formas de escribir una página de GET /notes (resultados por nota, PAGE notas por operación):
+ * - dto: entidades Note -> NoteDTO (toDTO del controller) -> NotePageDTO -> ObjectMapper, como antes
+ * - rows: NoteJsonWriter desde los valores de cada fila tal como los entrega el driver (bytes UTF-8 y Timestamp)
+ *
+ * Ninguno incluye la base de datos: dto no mide la hidratación de entidades de Hibernate y rows no mide el ResultSet.
+ * Con -prof gc, gc.alloc.rate.norm da los bytes asignados por nota.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteListJsonBenchmark {
+
+    private static final int PAGE = 20;
+    // toDTO es privado, se invoca con un MethodHandle constante para no medir la reflexión
+    private static final MethodHandle TO_DTO;
+
+    static {
+        try {
+            TO_DTO = MethodHandles.privateLookupIn(NoteController.class, MethodHandles.lookup())
+                .findVirtual(NoteController.class, "toDTO", MethodType.methodType(NoteDTO.class, Note.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    @Param({ "3" })
+    public int tags;
+
+    @Param({ "200" })
+    public int contentLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Descarta lo escrito; a diferencia de OutputStream.nullOutputStream() admite seguir escribiendo tras close()
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public void write(byte[] b, int off, int len) {}
+    };
+    private NoteController controller;
+    private List<Note> notes;
+    private Row[] rows;
+
+    // Valores de las filas de una nota como los devuelve el driver (getBytes, getTimestamp)
+    private record Row(long id, byte[] title, byte[] content, Timestamp createdAt, byte[][] tags) {}
+
+    @Setup
+    public void setup() {
+        controller = new NoteController();
+        notes = new ArrayList<>();
+        rows = new Row[PAGE];
+        String content = "Harina, agua, sal y levadura. Amasar y hornear a 220 grados. ".repeat(contentLength / 60 + 1)
+            .substring(0, contentLength);
+        for (int i = 0; i < PAGE; i++) {
+            LocalDateTime createdAt = LocalDateTime.of(2026, 10, 17 - i / 5, 12, 30, 15, 123_456_000);
+            Note note = new Note();
+            note.setId(1_000L + i);
+            note.setTitle("Receta de pan " + i);
+            note.setContent(content);
+            note.setCreatedAt(createdAt);
+            byte[][] tagNames = new byte[tags][];
+            for (int t = 0; t < tags; t++) {
+                Tag tag = new Tag();
+                tag.setId((long) t + 1);
+                tag.setName("tag-" + t);
+                note.getNoteTags().add(new NoteTag(note, tag));
+                tagNames[t] = tag.getName().getBytes(StandardCharsets.UTF_8);
+            }
+            notes.add(note);
+            rows[i] = new Row(note.getId(), note.getTitle().getBytes(StandardCharsets.UTF_8),
+                content.getBytes(StandardCharsets.UTF_8), Timestamp.valueOf(createdAt), tagNames);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public void dto() throws Throwable {
+        List<NoteDTO> items = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            items.add((NoteDTO) TO_DTO.invokeExact(controller, note));
+        }
+        objectMapper.writeValue(out, new NotePageDTO(items, null, false));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public void rows() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeFieldName("items");
+            generator.writeStartArray();
+            NoteJsonWriter writer = new NoteJsonWriter(generator);
+            for (Row row : rows) {
+                // El driver crea un Timestamp por nota y NoteJsonWriter lo convierte a LocalDateTime
+                writer.note(row.id(), row.title(), row.content(), row.createdAt().toLocalDateTime());
+                for (byte[] tag : row.tags()) {
+                    writer.tag(tag);
+                }
+            }
+            writer.finish();
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", null);
+            generator.writeBooleanField("hasNext", false);
+            generator.writeEndObject();
+        }
+    }
+}
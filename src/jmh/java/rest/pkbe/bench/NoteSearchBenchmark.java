@@ -0,0 +1,159 @@
+package rest.pkbe.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rest.pkbe.domain.search.NoteSearchHit;
+import rest.pkbe.domain.search.SearchTokenizer;
+import rest.pkbe.domain.search.UserNoteIndex;
+
+/**
+ * Compara la búsqueda en el índice invertido en memoria contra un escaneo ILIKE en PostgreSQL
+ * sobre las mismas notas generadas.
+ *
+ * El escaneo SQL necesita una base de datos, se configura con las variables de entorno
+ * BENCH_DB_URL, BENCH_DB_USER y BENCH_DB_PASSWORD (se usa una tabla temporal).
+ * Sin BENCH_DB_URL solo se mide el índice en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "receta", "harina", "chocolate", "reunión", "proyecto", "canción", "libro", "capítulo", "viaje",
+        "tarea", "idea", "resumen", "equipo", "cliente", "entrega", "código", "servidor", "base", "datos",
+        "nota", "etiqueta", "usuario", "mañana", "semana", "revisar", "pendiente", "estrofa", "autor",
+        "pastel", "horno", "mercado", "lista", "compras", "película", "música", "guitarra", "ejercicio"
+    };
+
+    private static final int VOCABULARY = 20000;
+
+    @Param({ "1000", "10000" })
+    public int notes;
+
+    @Param({ "chocolate", "receta harina" })
+    public String query;
+
+    private UserNoteIndex index;
+    private Connection connection;
+    private PreparedStatement like;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        List<String[]> docs = new ArrayList<>(notes);
+        index = new UserNoteIndex();
+        for (int i = 0; i < notes; i++) {
+            String title = sentence(random, 4);
+            String content = sentence(random, 120);
+            docs.add(new String[] { title, content });
+            index.add(i + 1, title, content, Instant.now());
+        }
+
+        String url = System.getenv("BENCH_DB_URL");
+        if (url == null) {
+            return;
+        }
+        connection = DriverManager.getConnection(url, System.getenv("BENCH_DB_USER"), System.getenv("BENCH_DB_PASSWORD"));
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TEMP TABLE bench_notes (id BIGINT PRIMARY KEY, user_id BIGINT, title VARCHAR(150), content TEXT)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_notes VALUES (?, 1, ?, ?)")) {
+            for (int i = 0; i < docs.size(); i++) {
+                insert.setLong(1, i + 1);
+                insert.setString(2, docs.get(i)[0]);
+                insert.setString(3, docs.get(i)[1]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (Statement analyze = connection.createStatement()) {
+            analyze.execute("ANALYZE bench_notes");
+        }
+        // Una condición ILIKE por término, igual que la semántica AND del índice
+        List<String> terms = SearchTokenizer.tokenize(query);
+        StringBuilder sql = new StringBuilder("SELECT id, title FROM bench_notes WHERE user_id = 1");
+        for (int i = 0; i < terms.size(); i++) {
+            sql.append(" AND (title ILIKE ? OR content ILIKE ?)");
+        }
+        sql.append(" ORDER BY id DESC LIMIT 20");
+        like = connection.prepareStatement(sql.toString());
+        int p = 1;
+        for (String term : terms) {
+            like.setString(p++, "%" + term + "%");
+            like.setString(p++, "%" + term + "%");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public List<NoteSearchHit> inMemoryIndex() {
+        return index.search(query, 0, 20);
+    }
+
+    @Benchmark
+    public int sqlLikeScan() throws SQLException {
+        if (like == null) {
+            throw new IllegalStateException("Define BENCH_DB_URL para medir el escaneo SQL");
+        }
+        int rows = 0;
+        try (ResultSet rs = like.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Genera texto con un vocabulario sesgado: algunas palabras comunes y muchas poco frecuentes,
+     * parecido a la distribución de palabras de un texto real.
+     */
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            if (random.nextInt(10) == 0) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            } else {
+                sb.append('w').append(random.nextInt(random.nextInt(VOCABULARY) + 1));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package rest.pkbe.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.model.NoteTag;
+import rest.pkbe.domain.model.Tag;
+import rest.pkbe.domain.service.impl.NoteServiceImpl;
+
+/**
+ * Mide NoteTag.equals/hashCode (nota + nombre de la tag) y la comparación de tags de NoteServiceImpl.updateNoteById:
+ * - hashSetBuild: construir el Set de relaciones de una nota
+ * - containsEqualCopy: buscar una relación equivalente pero no idéntica (recorre equals completo)
+ * - diffTags: la comparación real de updateNoteById, con la mitad de las tags conservadas y la otra mitad nuevas;
+ *   incluye copiar el Set porque el método lo modifica
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteTagBenchmark {
+
+    // diffTags es privado, se invoca con un MethodHandle constante para no medir la reflexión
+    private static final MethodHandle DIFF_TAGS;
+
+    static {
+        try {
+            DIFF_TAGS = MethodHandles.privateLookupIn(NoteServiceImpl.class, MethodHandles.lookup())
+                .findStatic(NoteServiceImpl.class, "diffTags", MethodType.methodType(Set.class, Set.class, Set.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    @Param({ "5", "50" })
+    public int tags;
+
+    private List<NoteTag> noteTags;
+    private Set<NoteTag> current;
+    private NoteTag probe;
+    private Set<String> requested;
+
+    @Setup
+    public void setup() {
+        Note note = new Note();
+        note.setId(1L);
+        noteTags = new ArrayList<>(tags);
+        for (int i = 0; i < tags; i++) {
+            noteTags.add(new NoteTag(note, tag(i)));
+        }
+        current = new HashSet<>(noteTags);
+        // Misma nota y mismo nombre que la última relación, pero otra instancia
+        probe = new NoteTag(note, tag(tags - 1));
+        requested = new HashSet<>();
+        for (int i = tags / 2; i < tags + tags / 2; i++) {
+            requested.add("tag-" + i);
+        }
+    }
+
+    private static Tag tag(int i) {
+        Tag tag = new Tag();
+        tag.setId((long) i + 1);
+        tag.setName("tag-" + i);
+        return tag;
+    }
+
+    @Benchmark
+    public Set<NoteTag> hashSetBuild() {
+        return new HashSet<>(noteTags);
+    }
+
+    @Benchmark
+    public boolean containsEqualCopy() {
+        return current.contains(probe);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Set<String> diffTags() throws Throwable {
+        return (Set<String>) DIFF_TAGS.invokeExact((Set) new HashSet<>(current), (Set) requested);
+    }
+}
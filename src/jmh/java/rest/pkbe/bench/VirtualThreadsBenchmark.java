@@ -0,0 +1,142 @@
+package rest.pkbe.bench;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import rest.pkbe.config.ConcurrencyLimitingDataSource;
+
+/**
+ * Compara hilos de plataforma y virtuales con {@code clients} peticiones concurrentes.
+ * Cada petición espera {@code ioMillis} sin base de datos (cliente lento, servicio externo) y después hace una
+ * consulta de 2 ms con una conexión de un pool Hikari de 10 conexiones:
+ * - platform: pool fijo de 200 hilos, como el de Tomcat por defecto
+ * - virtual: un hilo virtual por petición, todos piden la conexión directamente a Hikari
+ * - virtualLimited: igual, con ConcurrencyLimitingDataSource delante del pool
+ * Cada operación es una ráfaga completa de peticiones; failed cuenta las que no obtuvieron conexión
+ * en el connectionTimeout de Hikari ({@code connectionTimeoutMillis}).
+ *
+ * Necesita una base de datos: BENCH_DB_URL, BENCH_DB_USER y BENCH_DB_PASSWORD.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({ "2000" })
+    public int clients;
+
+    @Param({ "20", "200" })
+    public int ioMillis;
+
+    @Param({ "250" })
+    public long connectionTimeoutMillis;
+
+    private HikariDataSource pool;
+    private DataSource limited;
+    private ExecutorService platform;
+    private ExecutorService virtual;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Failures {
+        public long failed;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getenv("BENCH_DB_URL");
+        if (url == null) {
+            throw new IllegalStateException("Define BENCH_DB_URL para comparar hilos de plataforma y virtuales");
+        }
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(System.getenv("BENCH_DB_USER"));
+        config.setPassword(System.getenv("BENCH_DB_PASSWORD"));
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(connectionTimeoutMillis);
+        pool = new HikariDataSource(config);
+        limited = new ConcurrencyLimitingDataSource(pool, POOL_SIZE, Duration.ofMinutes(1));
+        platform = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        virtual = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platform.shutdownNow();
+        virtual.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public long platform(Failures failures) throws Exception {
+        return burst(platform, pool, failures);
+    }
+
+    @Benchmark
+    public long virtual(Failures failures) throws Exception {
+        return burst(virtual, pool, failures);
+    }
+
+    @Benchmark
+    public long virtualLimited(Failures failures) throws Exception {
+        return burst(virtual, limited, failures);
+    }
+
+    private long burst(ExecutorService executor, DataSource dataSource, Failures failures) throws Exception {
+        AtomicLong failed = new AtomicLong();
+        List<Future<?>> requests = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            requests.add(executor.submit(() -> {
+                Thread.sleep(ioMillis);
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement query = connection.prepareStatement("SELECT pg_sleep(0.002)")) {
+                    query.execute();
+                } catch (SQLException ex) {
+                    failed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> request : requests) {
+            request.get();
+        }
+        failures.failed += failed.get();
+        return failed.get();
+    }
+}
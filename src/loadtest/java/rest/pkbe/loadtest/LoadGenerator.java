@@ -0,0 +1,136 @@
+package rest.pkbe.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Generador de tráfico de modelo abierto.
+ *
+ * Las llegadas se programan a una tasa fija (constantes o de Poisson) sin esperar a que terminen las anteriores,
+ * cada una se atiende en un hilo virtual. La latencia se mide desde el momento programado de la llegada, no desde
+ * el envío: si el servidor o el cliente se atrasan, la espera cuenta (sin omisión coordinada).
+ * Solo se registran las llegadas programadas después del calentamiento.
+ */
+class LoadGenerator {
+
+    // Latencia máxima registrable en los histogramas (microsegundos), 3 dígitos significativos
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Workload workload;
+    private final Operation.Mix mix;
+    private final double rate;
+    private final boolean poisson;
+    private final int concurrency;
+    private final Duration requestTimeout;
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    LoadGenerator(Workload workload, Operation.Mix mix, double rate, boolean poisson, int concurrency, Duration requestTimeout) {
+        this.workload = workload;
+        this.mix = mix;
+        this.rate = rate;
+        this.poisson = poisson;
+        this.concurrency = concurrency;
+        this.requestTimeout = requestTimeout;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * Resultados de una operación: latencias de las respuestas 2xx, errores (otro código, excepción o tiempo agotado)
+     * y llegadas omitidas por falta de datos
+     */
+    static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final Map<String, LongAdder> errorCodes = new ConcurrentHashMap<>();
+
+        void error(String code) {
+            errors.increment();
+            errorCodes.computeIfAbsent(code, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Genera tráfico durante warmup + duration y espera a que terminen las peticiones en curso.
+     * @return resultados por operación
+     */
+    Map<Operation, Stats> run(Duration warmup, Duration duration) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        Random random = new Random();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Desplazamiento desde start, así el double no pierde precisión con valores grandes de nanoTime
+            double offset = 0;
+            while (start + (long) offset < end) {
+                long scheduled = start + (long) offset;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = mix.next(random);
+                boolean measured = scheduled >= measureFrom;
+                executor.submit(() -> execute(operation, scheduled, measured, inFlight));
+                offset += poisson ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+            }
+            // close() espera a que terminen las peticiones en curso
+        }
+        return stats;
+    }
+
+    private void execute(Operation operation, long scheduled, boolean measured, Semaphore inFlight) {
+        Stats result = stats.get(operation);
+        boolean acquired = false;
+        try {
+            long remaining = requestTimeout.toNanos() - (System.nanoTime() - scheduled);
+            acquired = remaining > 0 && inFlight.tryAcquire(remaining, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                if (measured) {
+                    result.error("client-timeout");
+                }
+                return;
+            }
+            int status = workload.execute(operation, ThreadLocalRandom.current());
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+            if (!measured) {
+                return;
+            }
+            if (status == Workload.SKIPPED) {
+                result.skipped.increment();
+            } else if (status >= 200 && status < 300) {
+                result.latency.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+            } else {
+                result.error(Integer.toString(status));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            if (measured) {
+                result.error(ex.getClass().getSimpleName());
+            }
+        } finally {
+            if (acquired) {
+                inFlight.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package rest.pkbe.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import rest.pkbe.PkbeApplication;
+
+/**
+ * Prueba de carga de extremo a extremo de /auth/login, /auth/refresh y el CRUD de /notes.
+ *
+ * - Levanta un PostgreSQL embebido (o usa db.url) y la aplicación en el mismo proceso en un puerto libre;
+ *   Flyway aplica las migraciones reales al iniciar
+ * - Prepara usuarios, sesiones y notas, genera tráfico de modelo abierto con el HttpClient del JDK
+ *   y registra la latencia de cada operación en histogramas HdrHistogram
+ * - Escribe el reporte y termina con código 1 si no se cumple algún SLO
+ *
+ * Uso: ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="rate=100 duration=2m"
+ * Argumentos: el directorio del reporte y después pares clave=valor (ver loadtest.properties).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Path reportDirectory = Path.of(args[0]);
+        LoadTestConfig config = LoadTestConfig.load(Arrays.copyOfRange(args, 1, args.length));
+        System.exit(run(config, reportDirectory) ? 0 : 1);
+    }
+
+    private static boolean run(LoadTestConfig config, Path reportDirectory) throws Exception {
+        EmbeddedPostgres embedded = null;
+        ConfigurableApplicationContext app = null;
+        try {
+            String url = config.get("db.url");
+            String username = config.get("db.username");
+            String password = config.get("db.password");
+            if (url == null) {
+                System.out.println("Iniciando PostgreSQL embebido...");
+                embedded = EmbeddedPostgres.builder().start();
+                url = embedded.getJdbcUrl("postgres", "postgres");
+                username = "postgres";
+                password = null;
+            }
+            app = startApplication(config, url, username, password);
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+
+            Duration requestTimeout = config.getDuration("request-timeout");
+            HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+            Workload workload = new Workload(http, URI.create("http://localhost:" + port), requestTimeout);
+            System.out.println("Preparando usuarios y notas...");
+            workload.setup(config.getInt("users"), config.getInt("login-users"), config.getInt("notes-per-user"));
+
+            Operation.Mix mix = Operation.Mix.parse(config.require("mix"));
+            double rate = config.getDouble("rate");
+            Duration warmup = config.getDuration("warmup");
+            Duration duration = config.getDuration("duration");
+            System.out.printf("Generando tráfico: %.1f req/s (%s), calentamiento %ss, medición %ss...%n",
+                rate, config.require("arrival"), warmup.toSeconds(), duration.toSeconds());
+            LoadGenerator generator = new LoadGenerator(workload, mix, rate, "poisson".equals(config.require("arrival")),
+                config.getInt("concurrency"), requestTimeout);
+            Map<Operation, LoadGenerator.Stats> stats = generator.run(warmup, duration);
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("rate", rate);
+            settings.put("arrival", config.require("arrival"));
+            settings.put("concurrency", config.getInt("concurrency"));
+            settings.put("duration", duration.toString());
+            settings.put("mix", config.require("mix"));
+            settings.put("users", config.getInt("users"));
+            settings.put("notesPerUser", config.getInt("notes-per-user"));
+            settings.put("app", config.withPrefix("app."));
+            settings.put("processors", Runtime.getRuntime().availableProcessors());
+            LoadTestReport report = new LoadTestReport(settings, stats, duration);
+            report.checkSlos(config);
+            if (config.get("baseline") != null) {
+                report.checkRegressions(Path.of(config.get("baseline")), config.getDouble("regression-tolerance"));
+            }
+            report.write(reportDirectory, System.out);
+            return report.passed();
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    /**
+     * Inicia la aplicación en un puerto libre con una clave JWT aleatoria y las propiedades app.* de la configuración
+     */
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config, String url, String username, String password) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", username);
+        properties.put("spring.datasource.password", password == null ? "" : password);
+        properties.put("jwt.secret", Base64.getEncoder().encodeToString(secret));
+        properties.put("jwt.expiration", "3600000");
+        properties.put("jwt.refresh-expiration", "86400000");
+        properties.putAll(config.withPrefix("app."));
+        System.out.println("Iniciando la aplicación...");
+        return new SpringApplicationBuilder(PkbeApplication.class).properties(properties).run();
+    }
+}
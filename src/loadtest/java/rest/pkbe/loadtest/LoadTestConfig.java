@@ -0,0 +1,79 @@
+package rest.pkbe.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Configuración de la prueba de carga: loadtest.properties del classpath con los valores por defecto,
+ * reemplazados por los argumentos clave=valor de la línea de comandos.
+ */
+class LoadTestConfig {
+
+    private final Properties properties = new Properties();
+
+    private LoadTestConfig() {}
+
+    static LoadTestConfig load(String[] args) throws IOException {
+        LoadTestConfig config = new LoadTestConfig();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                config.properties.load(defaults);
+            }
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argumento inválido, se espera clave=valor: " + arg);
+            }
+            config.properties.setProperty(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+        return config;
+    }
+
+    String get(String key) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    String require(String key) {
+        String value = get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Falta la propiedad " + key);
+        }
+        return value;
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(require(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(require(key));
+    }
+
+    /**
+     * Acepta el formato de Spring: 250ms, 10s, 1m o ISO-8601
+     */
+    Duration getDuration(String key) {
+        return DurationStyle.detectAndParse(require(key));
+    }
+
+    /**
+     * Propiedades con el prefijo indicado, sin el prefijo (p. ej. app.* para la aplicación bajo prueba)
+     */
+    Map<String, String> withPrefix(String prefix) {
+        Map<String, String> result = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix) && get(key) != null) {
+                result.put(key.substring(prefix.length()), get(key));
+            }
+        }
+        return result;
+    }
+}
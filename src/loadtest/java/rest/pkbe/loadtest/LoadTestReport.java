@@ -0,0 +1,194 @@
+package rest.pkbe.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Reporte de la prueba de carga y evaluación de los SLOs.
+ *
+ * Se escriben en el directorio del reporte:
+ * - report.json: configuración, resultados por operación (percentiles en ms) y SLOs; sirve como baseline de la siguiente
+ * - report.txt: la misma tabla que se imprime en consola
+ * - <operación>.hgrm: distribución completa de percentiles de HdrHistogram (ms)
+ */
+class LoadTestReport {
+
+    private static final String[] PERCENTILES = { "p50", "p90", "p99", "p999", "max" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    private final Map<String, Map<String, Object>> operations = new LinkedHashMap<>();
+    private final List<Map<String, Object>> checks = new ArrayList<>();
+    private final Map<Operation, LoadGenerator.Stats> stats;
+    private final Duration duration;
+
+    LoadTestReport(Map<String, Object> settings, Map<Operation, LoadGenerator.Stats> stats, Duration duration) {
+        this.stats = stats;
+        this.duration = duration;
+        report.put("settings", settings);
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, LoadGenerator.Stats> entry : stats.entrySet()) {
+            LoadGenerator.Stats result = entry.getValue();
+            long ok = result.latency.getTotalCount();
+            long failed = result.errors.sum();
+            if (ok + failed + result.skipped.sum() == 0) {
+                continue;
+            }
+            requests += ok + failed;
+            errors += failed;
+            Map<String, Object> operation = new LinkedHashMap<>();
+            operation.put("ok", ok);
+            operation.put("errors", failed);
+            operation.put("skipped", result.skipped.sum());
+            operation.put("throughput", round(ok / seconds()));
+            for (String percentile : PERCENTILES) {
+                operation.put(percentile, millis(result.latency, percentile));
+            }
+            Map<String, Long> codes = new TreeMap<>();
+            result.errorCodes.forEach((code, count) -> codes.put(code, count.sum()));
+            operation.put("errorCodes", codes);
+            operations.put(entry.getKey().key(), operation);
+        }
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("requests", requests);
+        total.put("errors", errors);
+        total.put("errorRate", requests == 0 ? 0.0 : round((double) errors / requests, 4));
+        total.put("throughput", round((requests - errors) / seconds()));
+        report.put("total", total);
+        report.put("operations", operations);
+        report.put("slo", checks);
+    }
+
+    /**
+     * Evalúa slo.error-rate y slo.<operación>.<percentil>
+     */
+    void checkSlos(LoadTestConfig config) {
+        String maxErrorRate = config.get("slo.error-rate");
+        if (maxErrorRate != null) {
+            @SuppressWarnings("unchecked")
+            double errorRate = (double) ((Map<String, Object>) report.get("total")).get("errorRate");
+            addCheck("error-rate", Double.parseDouble(maxErrorRate), errorRate);
+        }
+        config.withPrefix("slo.").forEach((key, value) -> {
+            int separator = key.lastIndexOf('.');
+            if (separator < 0) {
+                return;
+            }
+            String operation = key.substring(0, separator);
+            String percentile = key.substring(separator + 1);
+            Map<String, Object> result = operations.get(operation);
+            if (result == null || !result.containsKey(percentile)) {
+                return;
+            }
+            double limit = config.getDuration("slo." + key).toNanos() / 1_000_000.0;
+            addCheck(key, limit, (double) result.get(percentile));
+        });
+    }
+
+    /**
+     * Compara el p99 de cada operación con el de un reporte anterior
+     */
+    void checkRegressions(Path baseline, double tolerance) throws IOException {
+        JsonNode previous = objectMapper.readTree(baseline.toFile()).path("operations");
+        operations.forEach((operation, result) -> {
+            JsonNode previousP99 = previous.path(operation).path("p99");
+            if (previousP99.isNumber() && previousP99.asDouble() > 0) {
+                addCheck("regression." + operation + ".p99", round(previousP99.asDouble() * (1 + tolerance)), (double) result.get("p99"));
+            }
+        });
+    }
+
+    boolean passed() {
+        return checks.stream().allMatch(check -> (boolean) check.get("passed"));
+    }
+
+    void write(Path directory, PrintStream out) throws IOException {
+        Files.createDirectories(directory);
+        report.put("passed", passed());
+        objectMapper.writeValue(directory.resolve("report.json").toFile(), report);
+        for (Map.Entry<Operation, LoadGenerator.Stats> entry : stats.entrySet()) {
+            if (operations.containsKey(entry.getKey().key())) {
+                try (PrintStream hgrm = new PrintStream(directory.resolve(entry.getKey().key() + ".hgrm").toFile())) {
+                    entry.getValue().latency.outputPercentileDistribution(hgrm, 1000.0);
+                }
+            }
+        }
+        String table = table();
+        Files.writeString(directory.resolve("report.txt"), table);
+        out.print(table);
+        out.println("Reporte guardado en " + directory.toAbsolutePath());
+    }
+
+    private String table() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%n%-10s %8s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+            "operación", "ok", "errores", "omitidas", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms"));
+        operations.forEach((operation, result) -> text.append(String.format("%-10s %8d %7d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+            operation, result.get("ok"), result.get("errors"), result.get("skipped"), result.get("throughput"),
+            result.get("p50"), result.get("p90"), result.get("p99"), result.get("p999"), result.get("max"))));
+        text.append(String.format("%ntotal: %s%n", report.get("total")));
+        operations.forEach((operation, result) -> {
+            if (!((Map<?, ?>) result.get("errorCodes")).isEmpty()) {
+                text.append(String.format("errores %s: %s%n", operation, result.get("errorCodes")));
+            }
+        });
+        if (!checks.isEmpty()) {
+            text.append(String.format("%nSLOs:%n"));
+            checks.forEach(check -> text.append(String.format("  [%s] %s: %s (límite %s)%n",
+                (boolean) check.get("passed") ? "OK" : "FALLA", check.get("name"), check.get("actual"), check.get("limit"))));
+        }
+        text.append(String.format("%nResultado: %s%n", passed() ? "OK" : "FALLA"));
+        return text.toString();
+    }
+
+    private void addCheck(String name, double limit, double actual) {
+        Map<String, Object> check = new LinkedHashMap<>();
+        check.put("name", name);
+        check.put("limit", limit);
+        check.put("actual", actual);
+        check.put("passed", actual <= limit);
+        checks.add(check);
+    }
+
+    private double seconds() {
+        return duration.toMillis() / 1000.0;
+    }
+
+    private static double millis(Histogram histogram, String percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return 0.0;
+        }
+        long micros = switch (percentile) {
+            case "p50" -> histogram.getValueAtPercentile(50);
+            case "p90" -> histogram.getValueAtPercentile(90);
+            case "p99" -> histogram.getValueAtPercentile(99);
+            case "p999" -> histogram.getValueAtPercentile(99.9);
+            default -> histogram.getMaxValue();
+        };
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return round(value, 1);
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+}
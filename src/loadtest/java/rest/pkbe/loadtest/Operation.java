@@ -0,0 +1,91 @@
+package rest.pkbe.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Operaciones que genera la prueba de carga, con el nombre que se usa en mix y en los SLOs.
+ */
+enum Operation {
+    LOGIN("login"),
+    REFRESH("refresh"),
+    LIST("list"),
+    GET("get"),
+    CREATE("create"),
+    UPDATE("update"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida: " + key);
+    }
+
+    /**
+     * Selección ponderada de operaciones a partir de mix (p. ej. list:40,get:25,create:15)
+     */
+    static final class Mix {
+
+        private final Operation[] operations;
+        private final double[] cumulative;
+        private final Map<Operation, Double> weights;
+
+        private Mix(Map<Operation, Double> weights) {
+            this.weights = weights;
+            this.operations = weights.keySet().toArray(Operation[]::new);
+            this.cumulative = new double[operations.length];
+            double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+            double sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += weights.get(operations[i]) / total;
+                cumulative[i] = sum;
+            }
+        }
+
+        static Mix parse(String mix) {
+            Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Entrada de mix inválida: " + entry);
+                }
+                double weight = Double.parseDouble(parts[1]);
+                if (weight > 0) {
+                    weights.put(fromKey(parts[0].trim()), weight);
+                }
+            }
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("El mix no tiene operaciones");
+            }
+            return new Mix(weights);
+        }
+
+        Operation next(Random random) {
+            double value = random.nextDouble();
+            for (int i = 0; i < cumulative.length - 1; i++) {
+                if (value < cumulative[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+
+        boolean includes(Operation operation) {
+            return weights.containsKey(operation);
+        }
+    }
+}
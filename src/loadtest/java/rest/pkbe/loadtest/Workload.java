@@ -0,0 +1,241 @@
+package rest.pkbe.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import rest.pkbe.api.dto.request.auth.CreateUserRequest;
+import rest.pkbe.api.dto.request.note.BulkCreateNoteRequest;
+import rest.pkbe.api.dto.request.note.CreateNoteRequest;
+import rest.pkbe.api.dto.response.note.BulkCreateNoteResponse;
+import rest.pkbe.api.dto.response.note.NoteDTO;
+
+/**
+ * Usuarios, sesiones y notas de la prueba de carga, y la petición HTTP de cada operación.
+ * Los cuerpos se construyen con los mismos DTOs de la API.
+ *
+ * - Cada usuario tiene una sesión (token de acceso y de refresco) y notas iniciales que nunca se borran,
+ *   get y update usan esas notas; delete solo borra notas creadas durante la prueba
+ * - refresh toma la sesión en exclusiva: dos rotaciones simultáneas del mismo token se detectarían como reutilización
+ * - login usa usuarios aparte para no cerrar, por el límite de sesiones, las sesiones que usa refresh
+ */
+class Workload {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final String[] WORDS = {
+        "receta", "harina", "chocolate", "reunión", "proyecto", "código", "nota", "café", "cita", "título"
+    };
+
+    /**
+     * Resultado de una operación: código HTTP o SKIPPED si no había datos para ejecutarla
+     */
+    static final int SKIPPED = -1;
+
+    private final HttpClient http;
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final List<Session> sessions = new ArrayList<>();
+    private final BlockingQueue<Session> idleSessions = new LinkedBlockingQueue<>();
+    private final List<String> loginEmails = new ArrayList<>();
+
+    Workload(HttpClient http, URI baseUri, Duration requestTimeout) {
+        this.http = http;
+        this.baseUri = baseUri;
+        this.requestTimeout = requestTimeout;
+    }
+
+    private static final class Session {
+        private final String email;
+        private volatile String accessToken;
+        private volatile String refreshToken;
+        private final List<Long> seededNotes = new ArrayList<>();
+        private final ConcurrentLinkedDeque<Long> createdNotes = new ConcurrentLinkedDeque<>();
+
+        private Session(String email) {
+            this.email = email;
+        }
+    }
+
+    /**
+     * Registra los usuarios, inicia sus sesiones y crea sus notas iniciales con POST /notes/bulk
+     */
+    void setup(int users, int loginUsers, int notesPerUser) throws IOException, InterruptedException {
+        for (int i = 0; i < users; i++) {
+            Session session = new Session(register("user-" + i));
+            login(session);
+            if (notesPerUser > 0) {
+                seedNotes(session, notesPerUser);
+            }
+            sessions.add(session);
+            idleSessions.add(session);
+        }
+        for (int i = 0; i < loginUsers; i++) {
+            loginEmails.add(register("login-" + i));
+        }
+    }
+
+    int execute(Operation operation, Random random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case LOGIN -> login(random);
+            case REFRESH -> refresh();
+            case LIST -> send(authorized(randomSession(random), "/notes?size=20").GET());
+            case GET -> get(randomSession(random), random);
+            case CREATE -> create(randomSession(random), random);
+            case UPDATE -> update(randomSession(random), random);
+            case DELETE -> delete(randomSession(random));
+        };
+    }
+
+    private String register(String name) throws IOException, InterruptedException {
+        String email = name + "-" + runId + "@loadtest.pkbe";
+        HttpResponse<String> response = sendForBody(json(HttpRequest.newBuilder(baseUri.resolve("/auth/register")),
+            new CreateUserRequest(name, email, PASSWORD)));
+        expect(response, 201, "registro");
+        return email;
+    }
+
+    private void login(Session session) throws IOException, InterruptedException {
+        HttpResponse<String> response = sendForBody(loginRequest(session.email));
+        expect(response, 200, "login");
+        session.accessToken = objectMapper.readTree(response.body()).get("accessToken").asText();
+        session.refreshToken = refreshCookie(response);
+    }
+
+    private void seedNotes(Session session, int notes) throws IOException, InterruptedException {
+        Random random = new Random(session.email.hashCode());
+        List<CreateNoteRequest> requests = IntStream.range(0, notes).mapToObj(i -> noteRequest(random)).toList();
+        HttpResponse<String> response = sendForBody(json(authorized(session, "/notes/bulk"), new BulkCreateNoteRequest(requests)));
+        expect(response, 200, "carga de notas");
+        objectMapper.readValue(response.body(), BulkCreateNoteResponse.class).getResults()
+            .forEach(result -> session.seededNotes.add(result.getId()));
+    }
+
+    private int login(Random random) throws IOException, InterruptedException {
+        if (loginEmails.isEmpty()) {
+            return SKIPPED;
+        }
+        return send(loginRequest(loginEmails.get(random.nextInt(loginEmails.size()))));
+    }
+
+    private int refresh() throws IOException, InterruptedException {
+        Session session = idleSessions.poll(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (session == null) {
+            return SKIPPED;
+        }
+        try {
+            HttpResponse<String> response = sendForBody(HttpRequest.newBuilder(baseUri.resolve("/auth/refresh"))
+                .header("Cookie", "refreshToken=" + session.refreshToken).GET());
+            if (response.statusCode() == 200) {
+                session.refreshToken = refreshCookie(response);
+            }
+            return response.statusCode();
+        } finally {
+            idleSessions.add(session);
+        }
+    }
+
+    private int get(Session session, Random random) throws IOException, InterruptedException {
+        if (session.seededNotes.isEmpty()) {
+            return SKIPPED;
+        }
+        Long noteId = session.seededNotes.get(random.nextInt(session.seededNotes.size()));
+        return send(authorized(session, "/notes/" + noteId).GET());
+    }
+
+    private int create(Session session, Random random) throws IOException, InterruptedException {
+        HttpResponse<String> response = sendForBody(json(authorized(session, "/notes"), noteRequest(random)));
+        if (response.statusCode() == 201) {
+            session.createdNotes.add(objectMapper.readValue(response.body(), NoteDTO.class).getId());
+        }
+        return response.statusCode();
+    }
+
+    private int update(Session session, Random random) throws IOException, InterruptedException {
+        if (session.seededNotes.isEmpty()) {
+            return SKIPPED;
+        }
+        Long noteId = session.seededNotes.get(random.nextInt(session.seededNotes.size()));
+        String body = objectMapper.writeValueAsString(Map.of("title", "Nota editada " + random.nextInt(1000), "content", text(random, 60)));
+        return send(authorized(session, "/notes/" + noteId)
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int delete(Session session) throws IOException, InterruptedException {
+        Long noteId = session.createdNotes.pollFirst();
+        if (noteId == null) {
+            return SKIPPED;
+        }
+        return send(authorized(session, "/notes/" + noteId).DELETE());
+    }
+
+    private Session randomSession(Random random) {
+        return sessions.get(random.nextInt(sessions.size()));
+    }
+
+    private CreateNoteRequest noteRequest(Random random) {
+        return new CreateNoteRequest("Nota " + random.nextInt(100_000), text(random, 120),
+            Set.of("tag-" + random.nextInt(10), "común"));
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private HttpRequest.Builder loginRequest(String email) throws IOException {
+        return json(HttpRequest.newBuilder(baseUri.resolve("/auth/login")), Map.of("email", email, "password", PASSWORD));
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).header("Authorization", "Bearer " + session.accessToken);
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder builder, Object body) throws IOException {
+        return builder.header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.timeout(requestTimeout).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> sendForBody(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.timeout(requestTimeout).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String refreshCookie(HttpResponse<?> response) {
+        return response.headers().allValues("Set-Cookie").stream()
+            .filter(cookie -> cookie.startsWith("refreshToken="))
+            .map(cookie -> cookie.substring("refreshToken=".length(), cookie.indexOf(';') < 0 ? cookie.length() : cookie.indexOf(';')))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("La respuesta no incluye el token de refresco"));
+    }
+
+    private static void expect(HttpResponse<String> response, int status, String step) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Preparación fallida (" + step + "): " + response.statusCode() + " " + response.body());
+        }
+    }
+}
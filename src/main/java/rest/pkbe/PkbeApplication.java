@@ -1,9 +1,24 @@
 package rest.pkbe;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.PropertySource;
 
-@SpringBootApplication
+// La ruta reactiva (perfil de Maven reactive) es una aplicación aparte con su propia configuración:
+// con R2DBC en el classpath no se crea el DataSource, por eso se excluye su autoconfiguración por nombre
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+// Los filtros por defecto de @SpringBootApplication más el paquete de la ruta reactiva
+@ComponentScan(excludeFilters = {
+	@ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+	@ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+	@ComponentScan.Filter(type = FilterType.REGEX, pattern = "rest\\.pkbe\\.reactive\\..*")
+})
+// Valores por defecto con la menor precedencia: application.properties los reemplaza
+@PropertySource("classpath:pkbe-defaults.properties")
 public class PkbeApplication {
 
 	public static void main(String[] args) {
@@ -9,6 +9,8 @@ import rest.pkbe.api.dto.request.auth.CreateUserRequest;
 import rest.pkbe.api.dto.request.auth.LoginRequest;
 import rest.pkbe.api.dto.response.auth.AuthResponse;
 import rest.pkbe.api.dto.response.auth.UserDTO;
+import rest.pkbe.config.AuthenticatedUser;
+import rest.pkbe.config.StatementBudget;
 import rest.pkbe.domain.model.User;
 import rest.pkbe.domain.service.IUserService;
 
@@ -42,8 +44,9 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     
     @PostMapping("/login")
+    @StatementBudget(4)
     public ResponseEntity<AuthResponse> login(@RequestBody @Valid LoginRequest req) {
-        logger.info("Iniciando POST /login - Validando Credenciales");
+        logger.debug("Iniciando POST /login - Validando Credenciales");
         /**
          * A través de un DTO recibimos las credenciales de un usuario para autenticarlo
          * Si la autenticación es exitosa, se regresa un token de acceso y un token de refresco, ambos Strings
@@ -58,14 +61,15 @@ public class AuthController {
             .sameSite("Lax")
             .build();
         
-        logger.info("Operación POST /login - Finalizada");
+        logger.debug("Operación POST /login - Finalizada");
         return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, refreshTokenCookie.toString())
             .body(new AuthResponse(response[0]));
     }
 
     @PostMapping("/register")
+    @StatementBudget(2)
     public ResponseEntity<?> crearUsuario(@Valid @RequestBody CreateUserRequest userRequest) throws URISyntaxException{
-        logger.info("Iniciando POST /register - Registrando Usuario");
+        logger.debug("Iniciando POST /register - Registrando Usuario");
         /**
          * A través de un DTO recibimos los datos necesarios para crear un usuario
          * Asignamos los datos a una variable nueva y lo guardamos en la base de datos para que se le asigne un id
@@ -77,13 +81,14 @@ public class AuthController {
 
         User saved = userService.register(user);
         UserDTO res = new UserDTO(saved.getId(), saved.getNombreUsuario(), saved.getEmail());
-        logger.info("Operación POST /register - Finalizada");
+        logger.debug("Operación POST /register - Finalizada");
         return ResponseEntity.created(new URI("/users/" + res.getId())).body(res);
     }
 
     @GetMapping("/refresh")
+    @StatementBudget(2)
     public ResponseEntity<AuthResponse> refreshToken(@CookieValue String refreshToken) {
-        logger.info("Iniciando GET /refresh - Renovando Sesión.");
+        logger.debug("Iniciando GET /refresh - Renovando Sesión.");
         String[] response = userService.refreshSession(refreshToken);
         ResponseCookie refreshTokenCookie = ResponseCookie.from("refreshToken", response[1])
                 .httpOnly(true)
@@ -92,14 +97,15 @@ public class AuthController {
                 .maxAge(7 * 24 * 60 * 60)
                 .sameSite("Lax")
                 .build();
-        logger.info("Operación GET /refresh - Finalizada");
+        logger.debug("Operación GET /refresh - Finalizada");
         return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, refreshTokenCookie.toString())
                 .body(new AuthResponse(response[0]));
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@CookieValue String refreshToken, @AuthenticationPrincipal User user, HttpServletRequest request) {
-        logger.info("Iniciando POST /logout - Cerrando Sesión");
+    @StatementBudget(3)
+    public ResponseEntity<?> logout(@CookieValue String refreshToken, @AuthenticationPrincipal AuthenticatedUser user, HttpServletRequest request) {
+        logger.debug("Iniciando POST /logout - Cerrando Sesión");
         String accessToken = request.getHeader("Authorization").split(" ")[1];
 
         userService.logout(refreshToken, user.getId(), accessToken);
@@ -110,7 +116,7 @@ public class AuthController {
                 .path("/")
                 .maxAge(0)
                 .build();
-        logger.info("Operación POST /logout - Finalizada");
+        logger.debug("Operación POST /logout - Finalizada");
         return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cleanCookie.toString()).build();
     }
     
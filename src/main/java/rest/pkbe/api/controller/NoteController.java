@@ -1,24 +1,67 @@
 package rest.pkbe.api.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import rest.pkbe.api.dto.request.note.BulkCreateNoteRequest;
 import rest.pkbe.api.dto.request.note.CreateNoteRequest;
+import rest.pkbe.api.dto.response.note.BulkCreateNoteResponse;
+import rest.pkbe.api.dto.response.note.BulkNoteResultDTO;
 import rest.pkbe.api.dto.response.note.NoteDTO;
+import rest.pkbe.api.dto.response.note.NoteExportDTO;
+import rest.pkbe.api.dto.response.note.NoteImportJobDTO;
+import rest.pkbe.api.dto.response.note.NoteSearchPageDTO;
+import rest.pkbe.api.dto.response.note.NoteSearchResultDTO;
+import rest.pkbe.api.dto.response.note.NoteSummaryDTO;
+import rest.pkbe.api.dto.response.note.NoteSummaryPageDTO;
+import rest.pkbe.api.json.NoteRowsJson;
+import rest.pkbe.config.AuthenticatedUser;
+import rest.pkbe.config.StatementBudget;
+import rest.pkbe.domain.bulk.BulkItemResult;
+import rest.pkbe.domain.export.NoteExport;
+import rest.pkbe.domain.importer.NoteImportFormat;
+import rest.pkbe.domain.importer.NoteImportJob;
+import rest.pkbe.domain.listing.NoteRows;
+import rest.pkbe.domain.listing.NoteRowsPage;
 import rest.pkbe.domain.model.Note;
-import rest.pkbe.domain.model.User;
+import rest.pkbe.domain.pagination.CursorPage;
+import rest.pkbe.domain.search.NoteSearchHit;
+import rest.pkbe.domain.service.INoteImportService;
 import rest.pkbe.domain.service.INoteService;
+import rest.pkbe.domain.summary.NoteSummary;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,6 +69,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 
 
@@ -38,12 +82,27 @@ public class NoteController {
 
     @Autowired
     private INoteService noteService; // Corrección: Inyectamos la interfaz, no la implementación
+    @Autowired
+    private INoteImportService noteImportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    // Escribe cada nota de la exportación sin vaciar el generador, se vacía una vez por bloque
+    private ObjectWriter exportWriter;
     private static final Logger logger = LoggerFactory.getLogger(NoteController.class);
+    // Las respuestas con ETag se pueden guardar en caché del cliente pero deben revalidarse en cada uso
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
+    @PostConstruct
+    void init(){
+        exportWriter = objectMapper.writerFor(NoteExportDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Una sentencia más cuando se agota el bloque de ids de la secuencia
     @PostMapping
-    public ResponseEntity<?> createNote(@AuthenticationPrincipal User user, @Valid @RequestBody CreateNoteRequest req)
+    @StatementBudget(8)
+    public ResponseEntity<?> createNote(@AuthenticationPrincipal AuthenticatedUser user, @Valid @RequestBody CreateNoteRequest req)
     throws URISyntaxException {
-        logger.info("Iniciando POST / - Crear nota");
+        logger.debug("Iniciando POST / - Crear nota");
         /**
          * Crea una nota con los valores recibidos a través de un DTO
          * Se obtiene el id del usuario que está logeado
@@ -60,55 +119,188 @@ public class NoteController {
             .createdAt(saved.getCreatedAt().toString().split("T")[0])
             .tags(req.getTags())
             .build();
-        logger.info("Operación POST / - Finalizada");
+        logger.debug("Operación POST / - Finalizada");
         return ResponseEntity.created(new URI("/user/"+ user.getId() + "/note/" + res.getId())).body(res);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createNotes(@AuthenticationPrincipal AuthenticatedUser user, @Valid @RequestBody BulkCreateNoteRequest req){
+        logger.debug("Iniciando POST /bulk - Crear notas en lote");
+        /**
+         * Crea muchas notas en una sola petición
+         * Cada nota se valida y guarda de forma independiente, por lo que se regresa un reporte
+         * con el resultado de cada una (CREATED con su id o FAILED con el motivo)
+         */
+        List<BulkItemResult> results = noteService.createNotes(user.getId(), req.getNotes());
+        List<BulkNoteResultDTO> report = results.stream()
+            .map(result -> new BulkNoteResultDTO(result.getIndex(), result.isCreated() ? "CREATED" : "FAILED",
+                result.getId(), result.getError()))
+            .toList();
+        int created = (int) results.stream().filter(BulkItemResult::isCreated).count();
+        logger.debug("Operación POST /bulk - Finalizada");
+        return ResponseEntity.ok(new BulkCreateNoteResponse(created, results.size() - created, report));
+    }
+
     @GetMapping
-    public ResponseEntity<?> getAllUserNotes(@AuthenticationPrincipal User user){
-        logger.info("Iniciando GET / - Obtener notas de un usuario");
+    @StatementBudget(4)
+    public ResponseEntity<?> getAllUserNotes(@AuthenticationPrincipal AuthenticatedUser user,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = "desc") String direction,
+        @RequestParam(defaultValue = "full") String view,
+        @RequestParam(defaultValue = "false") boolean legacy,
+        WebRequest webRequest){
+        logger.debug("Iniciando GET / - Obtener notas de un usuario");
         /**
          * Obtiene las notas pertenecientes a un usuario dado su id
          * El id se recupera del token de acceso
-         * Se regresa una lista usando un DTO de respuesta como base
+         * Por defecto se regresa una página de notas ordenada por (createdAt, id) junto con un cursor
+         * para pedir la siguiente página. Con legacy=true se regresa la lista completa sin paginar
+         * Con view=summary cada nota incluye un extracto en lugar del contenido completo
          */
-        List<NoteDTO> noteList = noteService.getAllNotes(user.getId())
-            .stream()
-            .map(note -> NoteDTO.builder()
-            .id(note.getId())
-            .title(note.getTitle())
-            .content(note.getContent())
-            .createdAt(note.getCreatedAt().toString().split("T")[0])
-            .tags(note.getNoteTags().stream().map(nt -> nt.getTag().getName()).collect(Collectors.toSet()))
-            .build())
-        .toList();
-        logger.info("Operación GET / - Finalizada");
-        return ResponseEntity.ok(noteList);
+        if(!"full".equalsIgnoreCase(view) && !"summary".equalsIgnoreCase(view)){
+            logger.error("Obtención de notas fallida: Vista inválida");
+            throw new IllegalArgumentException("La vista debe ser full o summary");
+        }
+        // El ETag depende solo de la versión de notas del usuario, si el cliente ya tiene esta versión
+        // se responde 304 sin consultar las notas
+        String eTag = listETag(user.getId(), noteService.getNotesVersion(user.getId()));
+        if(webRequest.checkNotModified(eTag)){
+            logger.debug("Operación GET / - Finalizada (304)");
+            return null;
+        }
+        // Las notas completas se escriben en JSON directamente desde las filas de la consulta (NoteRowsJson)
+        if(legacy){
+            NoteRows rows = noteService.getAllNoteRows(user.getId());
+            logger.debug("Operación GET / - Finalizada");
+            return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(NoteRowsJson.list(rows));
+        }
+        if("summary".equalsIgnoreCase(view)){
+            CursorPage<NoteSummary> page = noteService.getNoteSummariesPage(user.getId(), cursor, size, Sort.Direction.fromString(direction));
+            NoteSummaryPageDTO response = new NoteSummaryPageDTO(
+                page.getItems().stream().map(this::toSummaryDTO).toList(),
+                page.getNextCursor(),
+                page.hasNext());
+            logger.debug("Operación GET / - Finalizada");
+            return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(response);
+        }
+        NoteRowsPage page = noteService.getNoteRowsPage(user.getId(), cursor, size, Sort.Direction.fromString(direction));
+        logger.debug("Operación GET / - Finalizada");
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(NoteRowsJson.page(page));
+    }
+
+    @GetMapping("/search")
+    @StatementBudget(2)
+    public ResponseEntity<?> searchNotes(@AuthenticationPrincipal AuthenticatedUser user,
+        @RequestParam String q,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size){
+        logger.debug("Iniciando GET /search - Buscar notas");
+        /**
+         * Busca entre las notas del usuario autenticado por título y contenido
+         * Los resultados se ordenan por relevancia e incluyen un fragmento del contenido con los términos resaltados
+         */
+        Slice<NoteSearchHit> hits = noteService.searchNotes(user.getId(), q, page, size);
+        List<NoteSearchResultDTO> items = hits.getContent().stream()
+            .map(hit -> new NoteSearchResultDTO(hit.getId(), hit.getTitle(),
+                LocalDate.ofInstant(hit.getCreatedAt(), ZoneId.systemDefault()).toString(), hit.getRank(), hit.getSnippet()))
+            .toList();
+        logger.debug("Operación GET /search - Finalizada");
+        return ResponseEntity.ok(new NoteSearchPageDTO(items, page, size, hits.hasNext()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(@AuthenticationPrincipal AuthenticatedUser user,
+        @RequestParam(defaultValue = "false") boolean gzip){
+        logger.debug("Iniciando GET /export - Exportar notas");
+        /**
+         * Exporta todas las notas del usuario como JSON delimitado por saltos de línea (NDJSON), una nota por línea
+         * La respuesta se escribe en segundo plano conforme se leen bloques de notas, por lo que la memoria
+         * no depende del número de notas. Con gzip=true se entrega comprimida (notes.ndjson.gz)
+         */
+        Long userId = user.getId();
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(target);
+            // Cada nota va en su propia línea, sin el separador por defecto entre valores raíz
+            generator.setRootValueSeparator(null);
+            noteService.exportNotes(userId, chunk -> {
+                for(NoteExport note : chunk){
+                    exportWriter.writeValue(generator, toExportDTO(note));
+                    generator.writeRaw('\n');
+                }
+                // Se envía cada bloque al cliente en cuanto está listo
+                generator.flush();
+            });
+            generator.close();
+            logger.debug("Operación GET /export - Finalizada");
+        };
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson" + (gzip ? ".gz" : "") + "\"")
+            .body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<?> importNotes(@AuthenticationPrincipal AuthenticatedUser user, HttpServletRequest request)
+    throws IOException, URISyntaxException {
+        logger.debug("Iniciando POST /import - Importar notas");
+        /**
+         * Recibe un archivo NDJSON (como el de GET /notes/export, también comprimido con gzip)
+         * o un zip de archivos markdown, según el Content-Type de la petición
+         * La importación se ejecuta en segundo plano, se regresa 202 con la URL para consultar su progreso
+         */
+        NoteImportFormat format = NoteImportFormat.fromContentType(request.getContentType());
+        NoteImportJob job = noteImportService.startImport(user.getId(), format, request.getInputStream());
+        logger.debug("Operación POST /import - Finalizada");
+        return ResponseEntity.accepted().location(new URI("/notes/import/" + job.getId())).body(toImportJobDTO(job));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<?> getImportJob(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable String jobId){
+        logger.debug("Iniciando GET /import/{} - Consultar importación", jobId);
+        /**
+         * Regresa el estado y el progreso de una importación del usuario autenticado
+         */
+        UUID id;
+        try{
+            id = UUID.fromString(jobId);
+        }catch(IllegalArgumentException ex){
+            throw new IllegalArgumentException("Id de importación inválido");
+        }
+        NoteImportJob job = noteImportService.getJob(user.getId(), id);
+        logger.debug("Operación GET /import/{} - Finalizada", jobId);
+        return ResponseEntity.ok(toImportJobDTO(job));
     }
 
     @GetMapping("/{noteId}")
-    public ResponseEntity<?> getNoteById(@PathVariable Long noteId, @AuthenticationPrincipal User user){
-        logger.info("Iniciando GET /{} - Obtener nota", noteId);
+    @StatementBudget(3)
+    public ResponseEntity<?> getNoteById(@PathVariable Long noteId, @AuthenticationPrincipal AuthenticatedUser user, WebRequest webRequest){
+        logger.debug("Iniciando GET /{} - Obtener nota", noteId);
         /**
          * Se obtiene una nota dado un id de nota perteneciente a un usuario autenticado
          * noteId se recupera del path para identificar el recurso
          * el id de usuario se recupera del token de acceso
+         * Si el cliente envía If-None-Match con el ETag vigente se responde 304 sin cargar la nota
          */
+        String eTag = noteETag(noteId, noteService.getNoteLastModified(noteId, user.getId()));
+        if(webRequest.checkNotModified(eTag)){
+            logger.debug("Operación GET /{} - Finalizada (304)", noteId);
+            return null;
+        }
         Note note = noteService.getNoteById(noteId, user.getId());
-        NoteDTO response = new NoteDTO();
-
-        response.setId(note.getId());
-        response.setTitle(note.getTitle());
-        response.setContent(note.getContent());
-        response.setCreatedAt(note.getCreatedAt().toString().split("T")[0]);
-        response.setTags(note.getNoteTags().stream().map(nt -> nt.getTag().getName()).collect(Collectors.toSet()));
-        logger.info("Operación GET /{} - Finalizada", noteId);
-        return ResponseEntity.ok(response);
+        NoteDTO response = toDTO(note);
+        logger.debug("Operación GET /{} - Finalizada", noteId);
+        return ResponseEntity.ok()
+            .eTag(noteETag(note.getId(), note.getUpdatedAt() != null ? note.getUpdatedAt() : note.getCreatedAt()))
+            .cacheControl(REVALIDATE)
+            .body(response);
     }
     
     @DeleteMapping("/{noteId}")   // se sacará del token
-    public ResponseEntity<?> deleteNoteById(@PathVariable Long noteId, @AuthenticationPrincipal User user) {
-        logger.info("Iniciando DELETE /{} - Eliminar nota", noteId);
+    @StatementBudget(3)
+    public ResponseEntity<?> deleteNoteById(@PathVariable Long noteId, @AuthenticationPrincipal AuthenticatedUser user) {
+        logger.debug("Iniciando DELETE /{} - Eliminar nota", noteId);
         /**
          * Se elimina una nota dado un id de usuario y un id de nota
          * noteId se recupera del path para identificar el recurso
@@ -116,21 +308,77 @@ public class NoteController {
          * Se elimina la nota pero no la tag, ya que una tag puede ser utilizada por una o más notas
          */
         noteService.deleteNoteById(noteId, user.getId());
-        logger.info("Operación DELETE /{} - Finalizada", noteId);
+        logger.debug("Operación DELETE /{} - Finalizada", noteId);
         return ResponseEntity.ok("La nota con id " + noteId + " perteneciente al usuario con id " + user.getId() + " se ha eliminado.");
     }
     
+    // Quitar tags cuesta una sentencia por relación eliminada (orphanRemoval), el presupuesto deja margen para algunas
     @PatchMapping("/{noteId}")
-    public ResponseEntity<?> updateNoteById(@AuthenticationPrincipal User user, @PathVariable Long noteId, @RequestBody NoteDTO req){
-        logger.info("Iniciando PATCH /{} - Actulizar nota", noteId);
+    @StatementBudget(10)
+    public ResponseEntity<?> updateNoteById(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long noteId, @RequestBody NoteDTO req){
+        logger.debug("Iniciando PATCH /{} - Actulizar nota", noteId);
         /**
          * noteId se recupera del path para identificar el recurso
          * el id de usuario se recupera del token de acceso
          * Además se incluye un DTO que contiene los nuevos datos que se requieren actualizar
          */
         noteService.updateNoteById(noteId, user.getId(), req.getTitle(), req.getContent(), req.getTags());
-        logger.info("Operación PATCH /{} - Finalizada", noteId);
+        logger.debug("Operación PATCH /{} - Finalizada", noteId);
         return ResponseEntity.ok("La nota con el id " + noteId + " perteneciente al usuario con id " + user.getId() + " ha sido actualizada.");
     }
 
+    /**
+     * ETag de una nota: su id y la fecha de su última modificación en microsegundos (precisión de la base de datos)
+     */
+    private static String noteETag(Long noteId, LocalDateTime lastModified){
+        long micros = lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1_000;
+        return "\"" + noteId + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    /**
+     * ETag de los listados de notas: el usuario (la URL es la misma para todos) y su versión de notas
+     */
+    private static String listETag(Long userId, long notesVersion){
+        return "\"" + userId + "-v" + notesVersion + "\"";
+    }
+
+    /**
+     * Construye el DTO de respuesta de una nota con sus etiquetas
+     */
+    private NoteDTO toDTO(Note note){
+        return NoteDTO.builder()
+            .id(note.getId())
+            .title(note.getTitle())
+            .content(note.getContent())
+            .createdAt(note.getCreatedAt().toString().split("T")[0])
+            .tags(note.getNoteTags().stream().map(nt -> nt.getTag().getName()).collect(Collectors.toSet()))
+            .build();
+    }
+
+    /**
+     * Construye la línea de exportación de una nota
+     */
+    private NoteExportDTO toExportDTO(NoteExport note){
+        return new NoteExportDTO(note.getId(), note.getTitle(), note.getContent(), note.getCreatedAt().toString(),
+            note.getUpdatedAt() == null ? null : note.getUpdatedAt().toString(), note.getTags());
+    }
+
+    /**
+     * Construye el DTO con el estado de una importación
+     */
+    private NoteImportJobDTO toImportJobDTO(NoteImportJob job){
+        return new NoteImportJobDTO(job.getId().toString(), job.getStatus().name(), job.getFormat().name(),
+            job.getProgress(), job.getNotesRead().get(), job.getImported().get(), job.getFailed().get(),
+            job.getErrors(), job.getError(), job.getCreatedAt().toString(),
+            job.getFinishedAt() == null ? null : job.getFinishedAt().toString());
+    }
+
+    /**
+     * Construye el DTO del listado resumido de una nota
+     */
+    private NoteSummaryDTO toSummaryDTO(NoteSummary summary){
+        return new NoteSummaryDTO(summary.getId(), summary.getTitle(), summary.getExcerpt(),
+            summary.getCreatedAt().toString().split("T")[0], summary.getTags());
+    }
+
 }
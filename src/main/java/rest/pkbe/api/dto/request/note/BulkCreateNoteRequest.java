@@ -0,0 +1,22 @@
+package rest.pkbe.api.dto.request.note;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * BulkCreateNoteRequest es un DTO para crear muchas notas en una sola petición.
+ * Cada nota se valida de forma individual, así una nota inválida no rechaza las demás
+ */
+public class BulkCreateNoteRequest {
+    @NotEmpty(message = "Debe incluirse al menos una nota")
+    private List<CreateNoteRequest> notes;
+}
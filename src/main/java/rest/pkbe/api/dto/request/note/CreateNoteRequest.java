@@ -4,6 +4,7 @@ import java.util.Set;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,9 +23,10 @@ import lombok.ToString;
  */
 public class CreateNoteRequest {
     @NotBlank(message = "La nota debe de tener título")
+    @Size(max = 150, message = "El título no puede superar 150 caracteres")
     private String title;
     @NotBlank(message = "No se puede crear una nota vacía")
     private String content;
     @NotEmpty(message = "La nota debe contener al menos una etiqueta")
-    private Set<@NotBlank String> tags;
+    private Set<@NotBlank @Size(max = 50, message = "Una etiqueta no puede superar 50 caracteres") String> tags;
 }
@@ -0,0 +1,21 @@
+package rest.pkbe.api.dto.response.note;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * Reporte de una creación de notas en lote: totales y el resultado de cada nota
+ */
+public class BulkCreateNoteResponse {
+    private int created;
+    private int failed;
+    private List<BulkNoteResultDTO> results;
+}
@@ -0,0 +1,21 @@
+package rest.pkbe.api.dto.response.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * Resultado de una nota dentro de una creación en lote.
+ * index es la posición de la nota en la petición, status es CREATED o FAILED
+ */
+public class BulkNoteResultDTO {
+    private int index;
+    private String status;
+    private Long id;
+    private String error;
+}
@@ -0,0 +1,25 @@
+package rest.pkbe.api.dto.response.note;
+
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * NoteExportDTO es una línea de la exportación NDJSON de notas.
+ * Al tratarse de un respaldo se envía el contenido completo y las fechas con hora (ISO-8601)
+ */
+public class NoteExportDTO {
+    private Long id;
+    private String title;
+    private String content;
+    private String createdAt;
+    private String updatedAt;
+    private Set<String> tags;
+}
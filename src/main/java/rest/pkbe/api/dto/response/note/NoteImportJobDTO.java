@@ -0,0 +1,31 @@
+package rest.pkbe.api.dto.response.note;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * NoteImportJobDTO muestra el estado de una importación de notas en segundo plano.
+ * status es PENDING, RUNNING, COMPLETED o FAILED y progress el porcentaje del archivo procesado,
+ * errors contiene los primeros errores de notas individuales y error el motivo si la importación falló
+ */
+public class NoteImportJobDTO {
+    private String id;
+    private String status;
+    private String format;
+    private int progress;
+    private long notesRead;
+    private long imported;
+    private long failed;
+    private List<String> errors;
+    private String error;
+    private String createdAt;
+    private String finishedAt;
+}
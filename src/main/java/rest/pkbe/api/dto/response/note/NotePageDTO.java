@@ -0,0 +1,23 @@
+package rest.pkbe.api.dto.response.note;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * NotePageDTO es la respuesta paginada del listado de notas.
+ * Contiene las notas de la página y un cursor opaco para solicitar la siguiente,
+ * si nextCursor es null ya no hay más notas por recuperar.
+ */
+public class NotePageDTO {
+    private List<NoteDTO> items;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,22 @@
+package rest.pkbe.api.dto.response.note;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * NoteSearchPageDTO es una página de resultados de búsqueda ordenados por relevancia
+ */
+public class NoteSearchPageDTO {
+    private List<NoteSearchResultDTO> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,25 @@
+package rest.pkbe.api.dto.response.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * NoteSearchResultDTO representa una nota encontrada en una búsqueda.
+ * En lugar del contenido completo se envía un fragmento (snippet) con los términos resaltados con <mark>,
+ * rank indica la relevancia del resultado.
+ * snippet es HTML: el contenido de la nota viene escapado y las únicas etiquetas son <mark> y </mark>.
+ * title es texto sin escapar, como en el resto de la API.
+ */
+public class NoteSearchResultDTO {
+    private Long id;
+    private String title;
+    private String createdAt;
+    private float rank;
+    private String snippet;
+}
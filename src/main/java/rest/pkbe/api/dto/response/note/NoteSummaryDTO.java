@@ -0,0 +1,25 @@
+package rest.pkbe.api.dto.response.note;
+
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * NoteSummaryDTO representa una nota en el listado resumido.
+ * En lugar del contenido completo se envía un extracto calculado al guardar la nota,
+ * el contenido se obtiene con GET /notes/{noteId}
+ */
+public class NoteSummaryDTO {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private String createdAt;
+    private Set<String> tags;
+}
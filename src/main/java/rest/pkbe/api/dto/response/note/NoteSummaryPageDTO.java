@@ -0,0 +1,22 @@
+package rest.pkbe.api.dto.response.note;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * NoteSummaryPageDTO es la respuesta paginada del listado resumido de notas (view=summary).
+ * Usa el mismo cursor que NotePageDTO, por lo que ambas vistas pueden alternarse entre páginas.
+ */
+public class NoteSummaryPageDTO {
+    private List<NoteSummaryDTO> items;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,154 @@
+package rest.pkbe.api.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+
+import rest.pkbe.domain.listing.NoteRows;
+
+/**
+ * Escribe notas en JSON directamente desde las filas de un listado ({@link NoteRows}), con la misma forma que NoteDTO:
+ * {"id":1,"title":"...","content":"...","createdAt":"2026-10-17","tags":["..."]}
+ *
+ * - Los textos se leen con getBytes: PostgreSQL los entrega en UTF-8 y el driver devuelve esos bytes sin decodificarlos;
+ *   el generador UTF-8 de las respuestas HTTP los copia escapándolos, sin crear un String por columna
+ * - La fecha se arma con una tabla de dígitos en un arreglo reutilizado (y se reutiliza si no cambia el día),
+ *   en lugar de createdAt.toString().split("T")[0]
+ * - Los nombres de los campos se codifican una sola vez (SerializedString)
+ *
+ * Una instancia por respuesta, no es thread-safe.
+ */
+public final class NoteJsonWriter implements RowCallbackHandler {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString TAGS = new SerializedString("tags");
+
+    // "00", "01", ..., "99"
+    private static final char[] DIGITS = new char[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGITS[i * 2] = (char) ('0' + i / 10);
+            DIGITS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    private final JsonGenerator generator;
+    private final boolean utf8;
+    // yyyy-MM-dd del último día escrito
+    private final char[] date = {'0', '0', '0', '0', '-', '0', '0', '-', '0', '0'};
+    private int dateYear = -1;
+    private int dateDayOfYear = -1;
+    private boolean open;
+    private long noteId;
+
+    public NoteJsonWriter(JsonGenerator generator) {
+        this.generator = generator;
+        this.utf8 = generator instanceof UTF8JsonGenerator;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        try {
+            long id = rs.getLong(NoteRows.ID);
+            if (!open || id != noteId) {
+                Timestamp timestamp = rs.getTimestamp(NoteRows.CREATED_AT);
+                note(id, rs.getBytes(NoteRows.TITLE), rs.getBytes(NoteRows.CONTENT),
+                    timestamp == null ? null : timestamp.toLocalDateTime());
+            }
+            byte[] tag = rs.getBytes(NoteRows.TAG_NAME);
+            if (tag != null) {
+                tag(tag);
+            }
+        } catch (IOException ex) {
+            // RowCallbackHandler solo admite SQLException, NoteRowsJson la desenvuelve
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Cierra la nota anterior (si la hay) y abre una nueva hasta su arreglo de tags; título y contenido en UTF-8
+     */
+    public void note(long id, byte[] title, byte[] content, LocalDateTime createdAt) throws IOException {
+        finish();
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(id);
+        generator.writeFieldName(TITLE);
+        writeText(title);
+        generator.writeFieldName(CONTENT);
+        writeText(content);
+        generator.writeFieldName(CREATED_AT);
+        writeDate(createdAt);
+        generator.writeFieldName(TAGS);
+        generator.writeStartArray();
+        this.open = true;
+        this.noteId = id;
+    }
+
+    /**
+     * Agrega una tag (nombre en UTF-8) a la nota abierta
+     */
+    public void tag(byte[] name) throws IOException {
+        writeText(name);
+    }
+
+    /**
+     * Cierra la última nota; se invoca al terminar de recorrer las filas
+     */
+    public void finish() throws IOException {
+        if (open) {
+            generator.writeEndArray();
+            generator.writeEndObject();
+            open = false;
+        }
+    }
+
+    private void writeText(byte[] value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (utf8) {
+            generator.writeUTF8String(value, 0, value.length);
+        } else {
+            // Generadores sobre un Writer (p. ej. writeValueAsString) no aceptan bytes
+            generator.writeString(new String(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeDate(LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString(value.toLocalDate().toString());
+            return;
+        }
+        int dayOfYear = value.getDayOfYear();
+        if (year != dateYear || dayOfYear != dateDayOfYear) {
+            int century = year / 100;
+            System.arraycopy(DIGITS, century * 2, date, 0, 2);
+            System.arraycopy(DIGITS, (year - century * 100) * 2, date, 2, 2);
+            System.arraycopy(DIGITS, value.getMonthValue() * 2, date, 5, 2);
+            System.arraycopy(DIGITS, value.getDayOfMonth() * 2, date, 8, 2);
+            dateYear = year;
+            dateDayOfYear = dayOfYear;
+        }
+        generator.writeString(date, 0, date.length);
+    }
+}
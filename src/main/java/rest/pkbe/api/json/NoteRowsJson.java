@@ -0,0 +1,79 @@
+package rest.pkbe.api.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import rest.pkbe.domain.listing.NoteRows;
+import rest.pkbe.domain.listing.NoteRowsPage;
+
+/**
+ * Cuerpo de respuesta de los listados de notas que se serializa a sí mismo: al escribir la respuesta, el conversor de
+ * Jackson le pasa su generador (conectado al OutputStream de la respuesta) y las filas se leen y se escriben una por una
+ * con {@link NoteJsonWriter}, sin entidades, DTOs ni listas intermedias.
+ *
+ * - list: arreglo de notas, como List<NoteDTO>
+ * - page: {"items":[...],"nextCursor":...,"hasNext":...}, como NotePageDTO
+ *
+ * La consulta se ejecuta durante la escritura: los errores de validación (cursor, tamaño de página, usuario) deben
+ * producirse antes, al obtener las filas en el servicio.
+ */
+public final class NoteRowsJson extends JsonSerializable.Base {
+
+    private static final SerializableString ITEMS = new SerializedString("items");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializableString HAS_NEXT = new SerializedString("hasNext");
+
+    private final NoteRows rows;
+    private final boolean page;
+    private final String nextCursor;
+
+    private NoteRowsJson(NoteRows rows, boolean page, String nextCursor) {
+        this.rows = rows;
+        this.page = page;
+        this.nextCursor = nextCursor;
+    }
+
+    public static NoteRowsJson list(NoteRows rows) {
+        return new NoteRowsJson(rows, false, null);
+    }
+
+    public static NoteRowsJson page(NoteRowsPage page) {
+        return new NoteRowsJson(page.rows(), true, page.nextCursor());
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        if (page) {
+            generator.writeStartObject();
+            generator.writeFieldName(ITEMS);
+        }
+        generator.writeStartArray();
+        NoteJsonWriter writer = new NoteJsonWriter(generator);
+        try {
+            rows.forEach(writer);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.finish();
+        generator.writeEndArray();
+        if (page) {
+            generator.writeFieldName(NEXT_CURSOR);
+            generator.writeString(nextCursor);
+            generator.writeFieldName(HAS_NEXT);
+            generator.writeBoolean(nextCursor != null);
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(generator, serializers);
+    }
+}
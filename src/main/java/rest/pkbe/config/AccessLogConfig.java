@@ -0,0 +1,48 @@
+package rest.pkbe.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Log de accesos asíncrono y muestreado ({@link AccessLogFilter}, {@link AccessLogWriter}).
+ * Reemplaza a los logs INFO de cada paso de la petición, que ahora son DEBUG.
+ */
+@Configuration
+public class AccessLogConfig {
+
+    private final boolean enabled;
+
+    public AccessLogConfig(@Value("${access-log.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Bean(destroyMethod = "stop")
+    AccessLogWriter accessLogWriter(
+        // Registros que pueden esperar al hilo del log; con la cola llena se descartan
+        @Value("${access-log.buffer-size:8192}") int bufferSize) {
+
+        AccessLogWriter writer = new AccessLogWriter(bufferSize);
+        if (enabled) {
+            writer.start();
+        }
+        return writer;
+    }
+
+    /**
+     * Se ejecuta antes que RequestMetricsFilter para leer sus contadores al terminar la petición
+     */
+    @Bean
+    FilterRegistrationBean<AccessLogFilter> accessLogFilter(
+        AccessLogWriter writer,
+        // Fracción de peticiones exitosas que se registran; los errores se registran siempre
+        @Value("${access-log.sample-rate:0.1}") double sampleRate) {
+
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(new AccessLogFilter(writer, sampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 9);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
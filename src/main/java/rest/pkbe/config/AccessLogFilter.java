@@ -0,0 +1,87 @@
+package rest.pkbe.config;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Un registro de acceso por petición ({@link AccessLogWriter}): método, ruta, estado, duración, sentencias SQL y
+ * bytes de la respuesta. Las respuestas con error (estado 4xx/5xx o una excepción) se registran siempre; las exitosas
+ * solo una fracción (access-log.sample-rate). Las peticiones que no se registran no crean ningún objeto.
+ *
+ * Se ejecuta fuera de {@link RequestMetricsFilter} para leer sus contadores al terminar la petición.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogWriter writer;
+    private final double sampleRate;
+
+    public AccessLogFilter(AccessLogWriter writer, double sampleRate) {
+        this.writer = writer;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // La respuesta se termina de escribir en segundo plano (GET /notes/export)
+                boolean asyncFailed = failed;
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start, asyncFailed);
+                    }
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+                    @Override
+                    public void onError(AsyncEvent event) {}
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {}
+                });
+            } else {
+                log(request, response, start, failed);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long start, boolean failed) {
+        long duration = System.nanoTime() - start;
+        // Con una excepción sin manejar el contenedor responde 500 aunque el estado todavía no lo diga
+        int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        boolean error = status >= 400;
+        if (!error && !(sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate))) {
+            return;
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RequestMetrics metrics = (RequestMetrics) request.getAttribute(RequestMetrics.ATTRIBUTE);
+        writer.write(new AccessLogWriter.Entry(
+            System.currentTimeMillis(),
+            request.getMethod(),
+            request.getRequestURI(),
+            route == null ? null : route.toString(),
+            status,
+            duration,
+            metrics == null ? -1 : metrics.getStatements(),
+            RequestMetricsFilter.contentWritten(response),
+            request.getRemoteAddr(),
+            !error));
+    }
+}
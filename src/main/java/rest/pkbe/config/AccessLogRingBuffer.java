@@ -0,0 +1,71 @@
+package rest.pkbe.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola acotada sin bloqueos para muchos productores (los hilos de las peticiones) y un solo consumidor
+ * ({@link AccessLogWriter}). Cada productor reserva una posición con un CAS sobre tail y después publica el elemento
+ * en su casilla; el consumidor avanza head solo cuando la casilla ya está publicada, así se conserva el orden.
+ * Si la cola está llena {@link #offer} devuelve false en lugar de esperar: una petición nunca se bloquea por el log.
+ */
+final class AccessLogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity se redondea a la siguiente potencia de dos
+     */
+    AccessLogRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return false si la cola está llena y el elemento se descartó
+     */
+    boolean offer(E element) {
+        long position;
+        do {
+            position = tail.get();
+            if (position - head.get() >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+        slots.lazySet((int) position & mask, element);
+        return true;
+    }
+
+    /**
+     * Solo lo invoca el consumidor
+     *
+     * @return el siguiente elemento, o null si no hay ninguno publicado
+     */
+    E poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
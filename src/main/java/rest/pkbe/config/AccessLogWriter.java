@@ -0,0 +1,134 @@
+package rest.pkbe.config;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Escribe el log de accesos desde un hilo propio: {@link AccessLogFilter} deja un {@link Entry} por petición en un
+ * {@link AccessLogRingBuffer} y este hilo les da formato (logfmt) y los registra con el logger rest.pkbe.access,
+ * así el formato y la E/S del log no ocurren en el hilo de la petición ni compiten por el lock del appender.
+ *
+ * Si la cola se llena los registros se descartan: se cuentan en pkbe.access.log.dropped y se avisa con un WARN.
+ */
+public class AccessLogWriter implements MeterBinder {
+
+    // Espera del hilo cuando la cola está vacía
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final Logger accessLogger = LoggerFactory.getLogger("rest.pkbe.access");
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    private final AccessLogRingBuffer<Entry> buffer;
+    private final LongAdder dropped = new LongAdder();
+    private final StringBuilder line = new StringBuilder(256);
+    private long reportedDropped;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Registro de una petición. El formato se arma en el hilo del log.
+     *
+     * @param timestamp fin de la petición (epoch en milisegundos)
+     * @param route patrón de la ruta, o null si ningún controller atendió la petición
+     * @param statements sentencias SQL, -1 si no se contaron
+     * @param responseBytes bytes del cuerpo de la respuesta, -1 si no se conocen
+     * @param sampled false si se registró por ser un error
+     */
+    public record Entry(long timestamp, String method, String path, String route, int status, long durationNanos,
+        long statements, long responseBytes, String client, boolean sampled) {}
+
+    public AccessLogWriter(int capacity) {
+        this.buffer = new AccessLogRingBuffer<>(capacity);
+    }
+
+    /**
+     * Encola el registro sin bloquear; si la cola está llena se descarta
+     */
+    public void write(Entry entry) {
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("access-log-writer").daemon().start(this::run);
+        logger.info("Log de accesos asíncrono activo (cola de {} registros)", buffer.capacity());
+    }
+
+    /**
+     * Detiene el hilo después de escribir los registros pendientes
+     */
+    void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pkbe.access.log.dropped", dropped, LongAdder::sum)
+            .description("Registros del log de accesos descartados con la cola llena")
+            .register(registry);
+    }
+
+    private void run() {
+        while (running || !buffer.isEmpty()) {
+            Entry entry = buffer.poll();
+            if (entry == null) {
+                reportDropped();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                accessLogger.info(format(entry));
+            } catch (RuntimeException ex) {
+                logger.error("No se pudo escribir el registro de acceso", ex);
+            }
+        }
+        reportDropped();
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        if (total > reportedDropped) {
+            logger.warn("Log de accesos: {} registros descartados con la cola llena", total - reportedDropped);
+            reportedDropped = total;
+        }
+    }
+
+    private String format(Entry entry) {
+        line.setLength(0);
+        line.append("ts=").append(Instant.ofEpochMilli(entry.timestamp()))
+            .append(" method=").append(entry.method())
+            .append(" route=").append(entry.route() == null ? "-" : entry.route())
+            .append(" path=\"").append(entry.path()).append('"')
+            .append(" status=").append(entry.status())
+            .append(" duration_ms=").append(entry.durationNanos() / 1_000_000).append('.');
+        long fraction = entry.durationNanos() / 1_000 % 1_000;
+        if (fraction < 100) {
+            line.append(fraction < 10 ? "00" : "0");
+        }
+        line.append(fraction);
+        if (entry.statements() >= 0) {
+            line.append(" statements=").append(entry.statements());
+        }
+        if (entry.responseBytes() >= 0) {
+            line.append(" bytes=").append(entry.responseBytes());
+        }
+        return line.append(" client=").append(entry.client())
+            .append(" sampled=").append(entry.sampled())
+            .toString();
+    }
+}
@@ -0,0 +1,177 @@
+package rest.pkbe.config;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import rest.pkbe.domain.model.RevokedAccessToken;
+import rest.pkbe.domain.repository.RevokedAccessTokenRepository;
+
+/**
+ * Lista en memoria de tokens de acceso revocados (logout), identificados por su jti.
+ * La comprobación en cada petición no consulta la base de datos: un filtro de Bloom descarta casi todos
+ * los tokens no revocados y solo sus positivos se confirman en el mapa. Las entradas se eliminan cuando el
+ * token hubiera expirado de todos modos.
+ *
+ * La tabla revoked_access_token es la fuente compartida entre instancias: cada instancia la carga al iniciar y
+ * cada jwt.revocation.poll-interval agrega los tokens revocados por las demás, así que en otra instancia un logout
+ * tarda como máximo ese intervalo en aplicarse. En la instancia que atiende el logout el token se agrega a la lista
+ * al confirmarse la transacción, no antes: si la transacción se revierte el token sigue siendo válido.
+ */
+@Component
+public class AccessTokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedAccessTokenRepository repository;
+    private final int expectedEntries;
+    // jti -> expiración del token (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    // Se usa un lock en lugar de synchronized porque revoke y prune acceden a la base de datos:
+    // un hilo virtual que espera I/O dentro de synchronized queda fijado a su hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenRevocationList.class);
+
+    public AccessTokenRevocationList(
+        RevokedAccessTokenRepository repository,
+        @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries) {
+
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+    }
+
+    /**
+     * Carga los tokens revocados que aún no expiran.
+     */
+    @PostConstruct
+    void load() {
+        lock.lock();
+        try {
+            repository.findByExpiresAtAfter(LocalDateTime.now())
+                .forEach(token -> revoked.put(token.getJti(), toEpochMilli(token.getExpiresAt())));
+            rebuildFilter();
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Lista de tokens revocados cargada: {} tokens", revoked.size());
+    }
+
+    /**
+     * Agrega los tokens que otras instancias revocaron desde la última consulta a la tabla.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.poll-interval:10s}", fixedDelayString = "${jwt.revocation.poll-interval:10s}")
+    public void poll() {
+        List<RevokedAccessToken> tokens = repository.findByExpiresAtAfter(LocalDateTime.now());
+        int added = 0;
+        lock.lock();
+        try {
+            for (RevokedAccessToken token : tokens) {
+                if (revoked.putIfAbsent(token.getJti(), toEpochMilli(token.getExpiresAt())) == null) {
+                    addToFilter(token.getJti());
+                    added++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (added > 0) {
+            logger.debug("Tokens revocados por otras instancias: {}", added);
+        }
+    }
+
+    /**
+     * @return true si el token con este jti fue revocado
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Revoca el token hasta su expiración: se guarda en la tabla (en la transacción en curso, si hay una)
+     * y se agrega a la lista en memoria al confirmarse.
+     */
+    public void revoke(String jti, Date expiration) {
+        if (jti == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        repository.insertIfAbsent(jti, LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault()));
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                revoked.put(jti, expiration.getTime());
+                addToFilter(jti);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Elimina los tokens que ya expiraron, de memoria y de la tabla, y reconstruye el filtro sin ellos.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.prune-interval:10m}", fixedDelayString = "${jwt.revocation.prune-interval:10m}")
+    public void prune() {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            rebuildFilter();
+            repository.deleteExpired(LocalDateTime.now());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Con más elementos de los previstos la tasa de falsos positivos sube, se reconstruye más grande
+    private void addToFilter(String jti) {
+        filter.add(jti);
+        if (revoked.size() > filter.capacity()) {
+            rebuildFilter();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Se construye un filtro nuevo y después se publica, las comprobaciones concurrentes usan el anterior
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,28 @@
+package rest.pkbe.config;
+
+import java.security.Principal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+/**
+ * Usuario autenticado de una petición: solo el id y el email, inmutable.
+ * Es el objeto que reciben los controllers con {@code @AuthenticationPrincipal}, no la entidad User,
+ * así no hace falta cargar la entidad administrada en cada petición y se puede guardar en caché.
+ */
+public class AuthenticatedUser implements Principal {
+
+    private final Long id;
+    // Igual que en User, el email no se incluye en los logs
+    @ToString.Exclude
+    private final String email;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,194 @@
+package rest.pkbe.config;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import rest.pkbe.exception.exceptions.ServiceUnavailableException;
+
+/**
+ * PasswordEncoder BCrypt que hace el cifrado y la verificación en un pool de hilos propio y acotado.
+ * BCrypt consume CPU a propósito: si se ejecuta en los hilos de Tomcat, una ráfaga de logins deja sin CPU
+ * al resto de peticiones. Aquí como máximo {@code threads} hashes corren a la vez, hasta {@code queueCapacity}
+ * esperan turno y el resto se rechaza de inmediato con un 503 (ServiceUnavailableException).
+ * El timeout solo acota la espera de la petición: si vence con la operación en cola se quita de la cola, pero si ya
+ * empezó termina en su hilo (BCrypt no atiende interrupciones) y se cuenta como abandonada.
+ * Además informa cuándo un hash guardado usa un costo distinto al configurado para volver a cifrarlo.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    private final OperationStats encodeStats = new OperationStats();
+    private final OperationStats matchesStats = new OperationStats();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, Duration timeout) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeoutNanos = timeout.toNanos();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeStats);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesStats);
+    }
+
+    /**
+     * Un hash con un costo distinto al configurado (mayor o menor) se vuelve a cifrar tras un login exitoso.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> T submit(Callable<T> operation, OperationStats stats) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return operation.call();
+                } finally {
+                    stats.record(start - queuedAt, System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            logger.warn("Cifrado de contraseñas saturado: Petición rechazada");
+            throw new ServiceUnavailableException("El servidor está ocupado, inténtalo de nuevo en un momento");
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            abandon(future);
+            rejected.increment();
+            logger.warn("Cifrado de contraseñas saturado: Tiempo de espera agotado");
+            throw new ServiceUnavailableException("El servidor está ocupado, inténtalo de nuevo en un momento");
+        } catch (InterruptedException ex) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Operación interrumpida");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * La petición deja de esperar la operación: si sigue en cola se quita y no se ejecuta; si ya empezó no se
+     * interrumpe (BCrypt no revisa la interrupción) y ocupa su hilo hasta terminar, aunque nadie use el resultado.
+     */
+    private void abandon(Future<?> future) {
+        if (!(future instanceof Runnable task && executor.remove(task))) {
+            abandoned.increment();
+        }
+    }
+
+    /**
+     * Detiene el pool al cerrar el contexto de Spring.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Métricas por operación (encode y matches): número de operaciones, tiempo total y máximo de ejecución,
+     * tiempo total en cola; además de las peticiones rechazadas por saturación y las operaciones que siguieron
+     * ejecutándose después de que su petición dejó de esperarlas.
+     */
+    public OperationStats getEncodeStats() {
+        return encodeStats;
+    }
+
+    public OperationStats getMatchesStats() {
+        return matchesStats;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getAbandoned() {
+        return abandoned.sum();
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public static final class OperationStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder queuedNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long waitNanos, long runNanos) {
+            count.increment();
+            queuedNanos.add(waitNanos);
+            totalNanos.add(runNanos);
+            maxNanos.accumulate(runNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getQueuedNanos() {
+            return queuedNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package rest.pkbe.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * DataSource que limita cuántas conexiones se pueden pedir a la vez con un semáforo justo.
+ * Con hilos virtuales miles de peticiones pueden pedir una conexión al mismo tiempo: el pool (Hikari)
+ * las haría esperar con su connectionTimeout y fallarían por timeout. Aquí esperan en la cola del semáforo,
+ * que cuesta muy poco a un hilo virtual, y solo piden la conexión al pool cuando hay una libre.
+ * El permiso se devuelve al cerrar la conexión.
+ *
+ * El permiso es reentrante por hilo: si el hilo ya tiene una conexión abierta (p. ej. una transacción
+ * REQUIRES_NEW o una consulta fuera de la transacción con open-in-view), la conexión anidada usa el mismo permiso
+ * y no espera en el semáforo; el permiso se devuelve al cerrar la última. Si no, con todos los permisos tomados
+ * cada hilo esperaría un permiso que solo él puede devolver. Así el semáforo limita los hilos con conexiones, no
+ * las conexiones: para que ningún hilo espere en el pool cada petición debe usar una sola conexión a la vez.
+ * Con métricas registra la espera en el semáforo (db.concurrency.wait) y las peticiones en espera (db.concurrency.waiting).
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    // Permiso del hilo en curso, mientras tenga conexiones abiertas
+    private final ThreadLocal<Hold> holds = new ThreadLocal<>();
+    private volatile Timer waitTimer;
+
+    public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrent, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Hold hold = hold();
+        try {
+            return releasing(obtainTargetDataSource().getConnection(), hold);
+        } catch (SQLException | RuntimeException ex) {
+            exit(hold);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Hold hold = hold();
+        try {
+            return releasing(obtainTargetDataSource().getConnection(username, password), hold);
+        } catch (SQLException | RuntimeException ex) {
+            exit(hold);
+            throw ex;
+        }
+    }
+
+    /**
+     * @return peticiones esperando una conexión en el semáforo
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.concurrency.waiting", permits, Semaphore::getQueueLength)
+            .description("Peticiones esperando una conexión en el semáforo")
+            .register(registry);
+        waitTimer = Timer.builder("db.concurrency.wait")
+            .description("Espera en el semáforo antes de pedir una conexión al pool")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(1))
+            .register(registry);
+    }
+
+    /**
+     * Suma una conexión al permiso del hilo, o espera un permiso nuevo si el hilo no tiene conexiones abiertas
+     */
+    private Hold hold() throws SQLException {
+        Hold hold = holds.get();
+        if (hold != null && hold.enter()) {
+            return hold;
+        }
+        acquire();
+        hold = new Hold();
+        holds.set(hold);
+        return hold;
+    }
+
+    /**
+     * Resta una conexión al permiso y lo devuelve al cerrarse la última.
+     * La conexión puede cerrarse en otro hilo: entonces el permiso del hilo original queda en cero
+     * y su siguiente conexión pide uno nuevo.
+     */
+    private void exit(Hold hold) {
+        if (hold.exit()) {
+            if (holds.get() == hold) {
+                holds.remove();
+            }
+            permits.release();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("No hay conexiones disponibles: tiempo de espera agotado");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Espera de conexión interrumpida", ex);
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Envuelve la conexión para restar del permiso una sola vez al cerrarla
+    private Connection releasing(Connection connection, Hold hold) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                    try {
+                        connection.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            exit(hold);
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+            });
+    }
+
+    /**
+     * Permiso tomado por un hilo y número de conexiones abiertas con él
+     */
+    private static final class Hold {
+
+        private final AtomicInteger connections = new AtomicInteger(1);
+
+        // Suma una conexión si el permiso sigue tomado; en cero ya se devolvió
+        boolean enter() {
+            int current;
+            do {
+                current = connections.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!connections.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        // @return si era la última conexión
+        boolean exit() {
+            return connections.decrementAndGet() == 0;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package rest.pkbe.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Activa reWriteBatchedInserts del driver de PostgreSQL en el pool de Hikari: cada lote de INSERT de POST /notes/bulk
+ * se envía como sentencias INSERT ... VALUES (...), (...) de varias filas en lugar de una sentencia por fila.
+ *
+ * Se agrega como propiedad del driver; si la URL de conexión o spring.datasource.hikari.data-source-properties
+ * ya indican reWriteBatchedInserts, se respeta ese valor. Se desactiva con db.rewrite-batched-inserts=false.
+ */
+@Configuration
+public class JdbcBatchInsertConfig {
+
+    private static final String REWRITE_BATCHED_INSERTS = "reWriteBatchedInserts";
+
+    @Bean
+    static BeanPostProcessor rewriteBatchedInserts(Environment environment) {
+        boolean enabled = environment.getProperty("db.rewrite-batched-inserts", Boolean.class, true);
+        return new BeanPostProcessor() {
+            /**
+             * Antes de que el pool se inicialice y de que otros BeanPostProcessor envuelvan el DataSource;
+             * las propiedades spring.datasource.hikari.* ya están asignadas
+             */
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof HikariDataSource hikari) {
+                    hikari.getDataSourceProperties().putIfAbsent(REWRITE_BATCHED_INSERTS, "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package rest.pkbe.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Coloca un {@link ConcurrencyLimitingDataSource} delante del pool de conexiones.
+ * Está activo por defecto cuando la aplicación usa hilos virtuales (spring.threads.virtual.enabled) y
+ * el límite por defecto es el tamaño máximo del pool de Hikari. Como el permiso es por hilo, el límite solo evita la
+ * espera en el pool si cada hilo usa una conexión a la vez; una conexión anidada sale del pool sin esperar un permiso.
+ */
+@Configuration
+public class JdbcConcurrencyLimiterConfig {
+
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean enabled = environment.getProperty("db.concurrency.enabled", Boolean.class, virtualThreads);
+        int maxConcurrent = environment.getProperty("db.concurrency.max",
+            Integer.class, environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty("db.concurrency.acquire-timeout", Duration.class, Duration.ofMinutes(1));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrent, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
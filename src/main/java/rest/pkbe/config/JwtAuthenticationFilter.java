@@ -1,19 +1,26 @@
 package rest.pkbe.config;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,20 +39,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
 
     // Servicio para operaciones con JWT (generar, validar, extraer datos)
     private final JwtService jwtService;
-    // Servicio para cargar los detalles del usuario desde la base de datos
+    // Servicio para cargar el usuario autenticado (caché de usuarios y base de datos)
     private final UserDetailsServiceConfig userDetailsServiceConfig;
+    // Tokens de acceso revocados (logout), la comprobación no consulta la base de datos
+    private final AccessTokenRevocationList revocationList;
     // Interfaz que intercepta y resuelve excepciones que ocurren durante la ejecución de una petición HTTP (antes de llegar al controller correspondiente (middleware))
     private final HandlerExceptionResolver resolver;
+    // Si está activo el usuario autenticado se construye solo con los claims del token, sin consultar la base de datos
+    private final boolean claimsOnly;
+    // Duración de la autenticación (sin el resto de la cadena) según el resultado: sin token, revocado, procesado o error
+    private final Timer noTokenTimer;
+    private final Timer revokedTimer;
+    private final Timer processedTimer;
+    private final Timer errorTimer;
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     public JwtAuthenticationFilter(
         JwtService jwtService,
         UserDetailsServiceConfig userDetailsServiceConfig,
-        @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver){
+        AccessTokenRevocationList revocationList,
+        @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
+        @Value("${jwt.principal.claims-only:false}") boolean claimsOnly,
+        MeterRegistry meterRegistry){
 
         this.jwtService = jwtService;
         this.userDetailsServiceConfig = userDetailsServiceConfig;
+        this.revocationList = revocationList;
         this.resolver = resolver;
+        this.claimsOnly = claimsOnly;
+        this.noTokenTimer = timer(meterRegistry, "no-token");
+        this.revokedTimer = timer(meterRegistry, "revoked");
+        this.processedTimer = timer(meterRegistry, "processed");
+        this.errorTimer = timer(meterRegistry, "error");
     }
 
     /**
@@ -59,41 +84,62 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
         throws ServletException, IOException {
-            logger.info("Petición de autenticación aceptada. Procesando solicitud...");
+            logger.debug("Petición de autenticación aceptada. Procesando solicitud...");
+            long start = System.nanoTime();
+            boolean timed = false;
             try {
                 
                 final String authHeader = request.getHeader("Authorization");
                 final String jwt;
+                final Claims claims;
                 final String userEmail;
 
                 // Si no hay encabezado Authorization o no comienza con 'Bearer ', continuar sin
                 // procesar JWT
                 if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                     logger.debug("> Token inexistente: Abortando operación");
+                    timed = stop(noTokenTimer, start);
                     filterChain.doFilter(request, response);
                     return;
                 }
                 // Extraer el token JWT del encabezado
                 jwt = authHeader.substring(7);
-                // Extraer el email del usuario desde el token
-                userEmail = jwtService.extractEmail(jwt);
+                // Verificar el token una sola vez y extraer el email del usuario desde sus claims
+                claims = jwtService.extractClaims(jwt);
+                userEmail = claims.get("email", String.class);
                 logger.debug("> Token capturado");
+                // Un token revocado (logout) sigue siendo válido criptográficamente, pero no autentica
+                if (revocationList.isRevoked(claims.getId())) {
+                    logger.debug("> Token revocado");
+                    timed = stop(revokedTimer, start);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
                 // Si se extrajo un email y el usuario aún no está autenticado en el contexto
                 if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Cargar los detalles del usuario desde la base de datos
-                    UserDetails userDetails = this.userDetailsServiceConfig.loadUserByUsername(userEmail);
+                    // Obtener el usuario autenticado: desde los claims o desde la caché de usuarios (base de datos en un fallo)
+                    Long userId = Long.valueOf(claims.getSubject());
+                    AuthenticatedUser principal;
+                    if (claimsOnly) {
+                        principal = new AuthenticatedUser(userId, userEmail);
+                    } else {
+                        long lookupStart = System.nanoTime();
+                        principal = this.userDetailsServiceConfig.loadPrincipalById(userId);
+                        RequestMetrics.time(RequestMetrics.Phase.USER, System.nanoTime() - lookupStart);
+                    }
                     // Verificar si el token es válido para el usuario
-                    if (jwtService.isTokenValid(jwt, userDetails)) {
+                    if (jwtService.isTokenValid(claims, principal.getEmail())) {
                         // Crear el objeto de autenticación y establecerlo en el contexto de seguridad
                         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, Collections.emptyList());
                         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authToken);
                         logger.debug("> Token válido");
                     }
                 }
                 // Continuar con la cadena de filtros
-                logger.info("Autenticación en proceso...");
+                logger.debug("Autenticación en proceso...");
+                timed = stop(processedTimer, start);
                 filterChain.doFilter(request, response);
 
             } catch (Exception ex) {
@@ -103,6 +149,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
                  * definimos para las posibles excepciones que se pueden producir
                  * ExpiredJwtEx.., SignatureEx.., MalformedJwtEx.., etc.
                  */
+                if (!timed) {
+                    stop(errorTimer, start);
+                }
                 logger.error("Proceso de Autenticación fallido: Credenciales inválidas");
                 logger.error(ex.getMessage());
                 logger.debug("Limpiando SecurityContextHolder...");
@@ -110,5 +159,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter{
                 resolver.resolveException(request, response, null, ex);
             }
     }
+
+    private static boolean stop(Timer timer, long start) {
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        RequestMetrics.time(RequestMetrics.Phase.AUTH, elapsed);
+        return true;
+    }
+
+    private static Timer timer(MeterRegistry registry, String result) {
+        return Timer.builder("pkbe.security.jwt.filter")
+            .description("Duración de la autenticación JWT de la petición")
+            .tag("result", result)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(10_000))
+            .maximumExpectedValue(Duration.ofSeconds(1))
+            .register(registry);
+    }
     
 }
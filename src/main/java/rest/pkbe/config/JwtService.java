@@ -1,6 +1,10 @@
 package rest.pkbe.config;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
 
 import javax.crypto.SecretKey;
@@ -10,9 +14,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import rest.pkbe.domain.model.User;
 
 
@@ -34,15 +40,34 @@ private long expirationMs;
 @Value("${jwt.refresh-expiration}")
 private long refreshExpirationMs;
 
+// Número máximo de tokens verificados que se conservan en caché (0 la desactiva)
+@Value("${jwt.cache.max-entries:10000}")
+private int cacheMaxEntries;
+
+    // La llave y el parser se construyen una sola vez, no en cada operación
+    private SecretKey signInKey;
+    private JwtParser parser;
+    private VerifiedClaimsCache claimsCache;
+
+    /**
+     * Decodifica la clave secreta y construye el parser de tokens al iniciar.
+     */
+    @PostConstruct
+    void init(){
+        // decodificamos la secret key
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser().verifyWith(signInKey).build();
+        claimsCache = new VerifiedClaimsCache(cacheMaxEntries);
+    }
+
     // Método para obtener la llave
     /**
      * Obtiene la clave secreta para firmar y verificar los tokens JWT.
      * @return clave secreta en formato SecretKey
      */
     private SecretKey getSignInKey(){
-        // decodificamos la secret key
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 
     // Método para generar tokens
@@ -52,9 +77,19 @@ private long refreshExpirationMs;
      * @return token JWT como String
      */
     public String generateToken(User user){
+        return generateToken(user.getId(), user.getEmail());
+    }
+
+    /**
+     * Genera un token JWT a partir del id y el email del usuario, sin necesitar la entidad.
+     * @param userId id del usuario
+     * @param email email del usuario
+     * @return token JWT como String
+     */
+    public String generateToken(Long userId, String email){
         return Jwts.builder()
-            .subject(user.getId().toString())
-            .claim("email", user.getEmail())
+            .subject(userId.toString())
+            .claim("email", email)
             .issuedAt(new Date())
             .expiration(new Date(System.currentTimeMillis() + expirationMs))
             .signWith(getSignInKey(), Jwts.SIG.HS256)
@@ -69,14 +104,39 @@ private long refreshExpirationMs;
      * @return token JWT como String
      */
     public String generateRefreshToken(User user){
+        return generateRefreshToken(user.getId());
+    }
+
+    /**
+     * Genera un token de refresco para el id de usuario indicado.
+     * Lleva un id propio para que dos tokens emitidos en el mismo segundo no sean iguales.
+     * @param userId id del usuario
+     * @return token JWT como String
+     */
+    public String generateRefreshToken(Long userId){
         return Jwts.builder()
-            .subject(user.getId().toString())
+            .subject(userId.toString())
             .issuedAt(new Date())
             .expiration(new Date(System.currentTimeMillis() + refreshExpirationMs))
             .signWith(getSignInKey(), Jwts.SIG.HS256)
+            .id(UUID.randomUUID().toString())
             .compact();
     }
 
+    /**
+     * Calcula el SHA-256 (hex) de un token, es lo que se guarda en la base de datos en lugar del token.
+     * @param token token JWT
+     * @return digest de 64 caracteres hexadecimales
+     */
+    public String hashToken(String token){
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+
     /**
      * Valida si el token es correcto y corresponde al usuario indicado.
      * @param token token JWT a validar
@@ -84,10 +144,30 @@ private long refreshExpirationMs;
      * @return true si el token es válido y pertenece al usuario, false en caso contrario
      */
     public boolean isTokenValid(String token, UserDetails userDetails){
+        return isTokenValid(extractClaims(token), userDetails);
+    }
+
+    /**
+     * Valida claims ya verificados contra el usuario indicado, sin volver a procesar el token.
+     * @param claims claims obtenidos con extractClaims
+     * @param userDetails detalles del usuario autenticado
+     * @return true si el token pertenece al usuario y no ha expirado, false en caso contrario
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails){
+        return isTokenValid(claims, userDetails.getUsername());
+    }
+
+    /**
+     * Valida claims ya verificados contra el email del usuario autenticado.
+     * @param claims claims obtenidos con extractClaims
+     * @param email email actual del usuario
+     * @return true si el token pertenece al usuario y no ha expirado, false en caso contrario
+     */
+    public boolean isTokenValid(Claims claims, String email){
         // Sacamos el email del token
-        final String emailFromToken = extractEmail(token);
-        boolean isUserMatch = emailFromToken.equals(userDetails.getUsername());
-        boolean isTokenExpired = isTokenExpired(token);
+        final String emailFromToken = claims.get("email", String.class);
+        boolean isUserMatch = email != null && email.equals(emailFromToken);
+        boolean isTokenExpired = claims.getExpiration().before(new Date());
         return isUserMatch && !isTokenExpired;
     }
 
@@ -103,15 +183,20 @@ private long refreshExpirationMs;
     // Método para extraer todos los claims
     /**
      * Extrae todos los claims (información) del token JWT.
+     * La firma se verifica una sola vez por token: los claims verificados se guardan en caché
+     * hasta que el token expira, los demás métodos de extracción usan este.
      * @param token token JWT
      * @return objeto Claims con la información contenida en el token
      */
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long now = System.currentTimeMillis();
+        String digest = VerifiedClaimsCache.digest(token);
+        Claims claims = claimsCache.get(digest, now);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            claimsCache.put(digest, claims, now);
+        }
+        return claims;
     }
 
     // Método para extraer la fecha de expiración
@@ -131,13 +216,7 @@ private long refreshExpirationMs;
      * @return email del usuario
      */
     public String extractEmail(String token){
-        return Jwts.parser()
-            .verifyWith(getSignInKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload()
-            .get("email", String.class);    // En un claim tenemos guardado el email
-        // return extractClaims(token).get("email").toString();
+        return extractClaims(token).get("email", String.class);    // En un claim tenemos guardado el email
     }
 
     // Método para extraer id del token
@@ -147,14 +226,7 @@ private long refreshExpirationMs;
      * @return id de usuario Long
      */
     public Long extractUserId(String token){
-        return Long.valueOf(
-            Jwts.parser()
-                .verifyWith(getSignInKey())   
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject()   // En el subject tenemos el id de usuario
-        );
+        return Long.valueOf(extractClaims(token).getSubject());   // En el subject tenemos el id de usuario
     }
     /**
      * Extrae el id del token para identificarlo
@@ -164,4 +236,19 @@ private long refreshExpirationMs;
     public String extractJti(String token){
         return extractClaims(token).getId();
     }
+
+    /**
+     * Métricas de la caché de tokens verificados: aciertos, fallos y entradas actuales.
+     */
+    public long getClaimsCacheHits(){
+        return claimsCache.hits();
+    }
+
+    public long getClaimsCacheMisses(){
+        return claimsCache.misses();
+    }
+
+    public int getClaimsCacheSize(){
+        return claimsCache.size();
+    }
 }
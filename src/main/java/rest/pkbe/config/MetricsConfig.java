@@ -0,0 +1,232 @@
+package rest.pkbe.config;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import rest.pkbe.domain.service.INoteService;
+import rest.pkbe.domain.service.IUserService;
+import rest.pkbe.domain.service.impl.RefreshTokenSweeper;
+
+/**
+ * Métricas de la aplicación, expuestas por Actuator (GET /actuator/prometheus):
+ * - pkbe.service: duración de cada método de INoteService e IUserService
+ * - pkbe.security.jwt.filter: duración de la autenticación en JwtAuthenticationFilter (sin el resto de la cadena)
+ * - pkbe.request.*: sentencias SQL ({@link StatementCountingDataSource}), entidades cargadas y tamaño de petición y
+ *   respuesta por endpoint, y peticiones que exceden su presupuesto de sentencias ({@link StatementBudget})
+ * - db.concurrency.wait: espera en el semáforo de {@link ConcurrencyLimitingDataSource};
+ *   la espera por una conexión del pool la registra Spring Boot en hikaricp.connections.acquire
+ * - pkbe.security.jwt.claims.cache: aciertos y fallos de la caché de tokens verificados de {@link JwtService}
+ * - pkbe.security.bcrypt: duración, espera en cola, rechazos y operaciones abandonadas de {@link BoundedPasswordEncoder}
+ * - pkbe.refresh.token.purge: ejecuciones y filas eliminadas por {@link RefreshTokenSweeper}
+ * - pkbe.threads.virtual.pinned: pinning de hilos virtuales por lugar ({@link VirtualThreadPinningMonitor})
+ *
+ * Con server-timing.enabled=true cada respuesta además lleva el encabezado Server-Timing ({@link ServerTimingFilter}).
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<Class<?>> TIMED_SERVICES = List.of(INoteService.class, IUserService.class);
+
+    /**
+     * Envuelve los servicios en un {@link TimedServiceProxy}. No declara orden, así se aplica después de los proxies
+     * de Spring (@Transactional) y el timer incluye la transacción.
+     */
+    @Bean
+    static BeanPostProcessor timedServices(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                for (Class<?> service : TIMED_SERVICES) {
+                    if (service.isInstance(bean)) {
+                        return TimedServiceProxy.wrap(bean, service, registry.getObject());
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Se ejecuta antes de Spring Security para medir también la autenticación
+     */
+    @Bean
+    FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(
+        MeterRegistry registry,
+        // Presupuesto de sentencias SQL de los endpoints sin @StatementBudget (0 sin presupuesto)
+        @Value("${sql.budget.default:0}") int defaultBudget,
+        // Fracción de peticiones que guardan el texto de sus sentencias para reportar las que exceden el presupuesto
+        @Value("${sql.budget.sample-rate:0.01}") double sampleRate) {
+
+        FilterRegistrationBean<RequestMetricsFilter> registration = new FilterRegistrationBean<>(
+            new RequestMetricsFilter(registry, defaultBudget, sampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Encabezado Server-Timing con el desglose de la petición; se ejecuta dentro de RequestMetricsFilter
+     * y antes de Spring Security para medir la autenticación
+     */
+    @Bean
+    FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(@Value("${server-timing.enabled:false}") boolean enabled) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 11);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    /**
+     * Cuenta en {@link RequestMetrics} las sentencias SQL de la petición en curso
+     */
+    @Bean
+    static BeanPostProcessor statementCounting() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Cuenta en {@link RequestMetrics} las entidades que carga Hibernate
+     */
+    @Bean
+    HibernatePropertiesCustomizer requestMetricsHibernateCustomizer() {
+        PostLoadEventListener postLoadListener = event -> RequestMetrics.entityLoaded();
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, postLoadListener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {}
+        };
+        return properties -> properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator));
+    }
+
+    @Bean
+    MeterBinder jdbcConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                if (dataSource.isWrapperFor(ConcurrencyLimitingDataSource.class)) {
+                    dataSource.unwrap(ConcurrencyLimitingDataSource.class).bindTo(registry);
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder jwtClaimsCacheMetrics(JwtService jwtService) {
+        return registry -> {
+            FunctionCounter.builder("pkbe.security.jwt.claims.cache", jwtService, JwtService::getClaimsCacheHits)
+                .description("Tokens resueltos desde la caché de tokens verificados")
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("pkbe.security.jwt.claims.cache", jwtService, JwtService::getClaimsCacheMisses)
+                .description("Tokens resueltos desde la caché de tokens verificados")
+                .tag("result", "miss")
+                .register(registry);
+            Gauge.builder("pkbe.security.jwt.claims.cache.size", jwtService, JwtService::getClaimsCacheSize)
+                .description("Tokens verificados en caché")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder passwordEncoderMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            bindPasswordEncoderOperation(registry, "encode", passwordEncoder.getEncodeStats());
+            bindPasswordEncoderOperation(registry, "matches", passwordEncoder.getMatchesStats());
+            FunctionCounter.builder("pkbe.security.bcrypt.rejected", passwordEncoder, BoundedPasswordEncoder::getRejected)
+                .description("Operaciones de BCrypt rechazadas con el pool saturado (503)")
+                .register(registry);
+            FunctionCounter.builder("pkbe.security.bcrypt.abandoned", passwordEncoder, BoundedPasswordEncoder::getAbandoned)
+                .description("Operaciones de BCrypt que siguieron ejecutándose después del timeout de su petición")
+                .register(registry);
+            Gauge.builder("pkbe.security.bcrypt.queued", passwordEncoder, BoundedPasswordEncoder::getQueued)
+                .description("Operaciones de BCrypt esperando un hilo")
+                .register(registry);
+        };
+    }
+
+    private static void bindPasswordEncoderOperation(MeterRegistry registry, String operation,
+        BoundedPasswordEncoder.OperationStats stats) {
+
+        FunctionTimer.builder("pkbe.security.bcrypt", stats,
+                BoundedPasswordEncoder.OperationStats::getCount,
+                BoundedPasswordEncoder.OperationStats::getTotalNanos, TimeUnit.NANOSECONDS)
+            .description("Ejecución de BCrypt en su pool de hilos")
+            .tag("operation", operation)
+            .register(registry);
+        FunctionTimer.builder("pkbe.security.bcrypt.queue", stats,
+                BoundedPasswordEncoder.OperationStats::getCount,
+                BoundedPasswordEncoder.OperationStats::getQueuedNanos, TimeUnit.NANOSECONDS)
+            .description("Espera en la cola del pool de BCrypt")
+            .tag("operation", operation)
+            .register(registry);
+        TimeGauge.builder("pkbe.security.bcrypt.max", stats, TimeUnit.NANOSECONDS,
+                BoundedPasswordEncoder.OperationStats::getMaxNanos)
+            .description("Ejecución más larga de BCrypt desde el inicio")
+            .tag("operation", operation)
+            .register(registry);
+    }
+
+    @Bean
+    MeterBinder refreshTokenPurgeMetrics(RefreshTokenSweeper sweeper) {
+        return registry -> {
+            FunctionCounter.builder("pkbe.refresh.token.purge.runs", sweeper, RefreshTokenSweeper::getRuns)
+                .description("Ejecuciones de la purga de tokens de refresco expirados")
+                .register(registry);
+            FunctionCounter.builder("pkbe.refresh.token.purged", sweeper, RefreshTokenSweeper::getPurgedTotal)
+                .description("Tokens de refresco expirados eliminados")
+                .register(registry);
+            Gauge.builder("pkbe.refresh.token.purge.last.purged", sweeper, RefreshTokenSweeper::getLastRunPurged)
+                .description("Tokens eliminados en la última purga")
+                .register(registry);
+            TimeGauge.builder("pkbe.refresh.token.purge.last.duration", sweeper, TimeUnit.MILLISECONDS,
+                    RefreshTokenSweeper::getLastRunMillis)
+                .description("Duración de la última purga")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder virtualThreadPinningMetrics(VirtualThreadPinningMonitor pinningMonitor) {
+        return pinningMonitor::bindTo;
+    }
+}
@@ -0,0 +1,81 @@
+package rest.pkbe.config;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caché acotada, con tiempo de vida, de los usuarios autenticados por id.
+ * Evita consultar la tabla users en cada petición autenticada. Las entradas se invalidan cuando el
+ * usuario se modifica o se elimina (ver {@link PrincipalCacheInvalidator}); el tiempo de vida limita
+ * cuánto puede durar un dato desactualizado si el cambio se hace fuera de JPA.
+ * Con un tiempo de vida o un máximo de 0 la caché queda desactivada.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(AuthenticatedUser principal, long expiresAtNanos) {}
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(
+        @Value("${jwt.principal.cache.ttl:5m}") Duration ttl,
+        @Value("${jwt.principal.cache.max-entries:10000}") int maxEntries) {
+
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return el usuario en caché si su entrada no ha expirado, o null
+     */
+    public AuthenticatedUser get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(userId, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public void put(AuthenticatedUser principal) {
+        if (ttlNanos <= 0 || maxEntries <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(principal.getId(), new Entry(principal, now + ttlNanos));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            entries.remove(userId);
+        }
+    }
+
+    private void evict(long nowNanos) {
+        entries.values().removeIf(entry -> entry.expiresAtNanos() - nowNanos <= 0);
+        // Si todas siguen vigentes se descarta una décima parte para no recorrer el mapa en cada inserción
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,41 @@
+package rest.pkbe.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import rest.pkbe.domain.model.User;
+
+/**
+ * Listener JPA de la entidad User: cualquier cambio de email o contraseña, o la eliminación del usuario,
+ * descarta su entrada de la {@link PrincipalCache} para que la siguiente petición lo vuelva a cargar.
+ * Hibernate obtiene la instancia a través del contenedor de Spring, por eso puede recibir la caché.
+ */
+@Component
+public class PrincipalCacheInvalidator {
+
+    private final PrincipalCache principalCache;
+
+    public PrincipalCacheInvalidator(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void invalidate(User user) {
+        Long userId = user.getId();
+        principalCache.invalidate(userId);
+        // Una petición concurrente podría volver a cargar el valor anterior antes del commit,
+        // así que se invalida de nuevo al confirmar la transacción
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
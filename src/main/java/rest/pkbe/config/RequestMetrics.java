@@ -0,0 +1,225 @@
+package rest.pkbe.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores de la petición HTTP en curso: sentencias SQL ejecutadas y conexiones abiertas a la vez
+ * ({@link StatementCountingDataSource}) y entidades cargadas por Hibernate. {@link RequestMetricsFilter} los abre al recibir la petición y los registra al
+ * terminar; fuera de una petición (tareas programadas, importaciones en segundo plano) no se cuenta nada.
+ * Cada petición la atiende un solo hilo, así que los contadores son campos simples sin sincronización.
+ *
+ * En las peticiones muestreadas también se guarda el texto de las sentencias (hasta MAX_CAPTURED) para
+ * reportar sus huellas si la petición se pasa de su presupuesto.
+ * Al terminar la petición queda en el atributo {@link #ATTRIBUTE} (p. ej. para las pruebas con MockMvc).
+ *
+ * Si la petición se mide ({@link ServerTimingFilter}) también acumula la duración de cada {@link Phase} para el
+ * encabezado Server-Timing; si no, el arreglo de fases no existe y registrar una fase solo consulta el ThreadLocal.
+ */
+public final class RequestMetrics {
+
+    public static final String ATTRIBUTE = RequestMetrics.class.getName();
+    private static final int MAX_CAPTURED = 200;
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * Fases de la petición que se reportan en Server-Timing. Se pueden solapar: auth incluye user y svc incluye db y conn.
+     */
+    enum Phase {
+        // JwtAuthenticationFilter, sin el resto de la cadena
+        AUTH("auth"),
+        // Carga del usuario del token (caché o base de datos)
+        USER("user"),
+        // Métodos de INoteService e IUserService, con su transacción
+        SERVICE("svc"),
+        // Espera por una conexión (límite de concurrencia y pool)
+        CONNECTION("conn"),
+        // Ejecución de sentencias SQL
+        DB("db"),
+        // Serialización y escritura del cuerpo de la respuesta, hasta el primer envío al cliente
+        WRITE("write");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private final List<String> captured;
+    private long statements;
+    private long entityLoads;
+    // Conexiones abiertas ahora y máximo de conexiones abiertas a la vez durante la petición
+    private int openConnections;
+    private int maxOpenConnections;
+    // Presupuesto de sentencias del endpoint, 0 sin presupuesto
+    private int statementBudget;
+    // Nanosegundos por fase, null si la petición no se mide
+    private long[] phases;
+    private long writeStart;
+
+    private RequestMetrics(boolean capture) {
+        this.captured = capture ? new ArrayList<>() : null;
+    }
+
+    static RequestMetrics start(boolean capture) {
+        RequestMetrics metrics = new RequestMetrics(capture);
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Activa la medición de fases de la petición en curso
+     *
+     * @return los contadores de la petición, o null fuera de {@link RequestMetricsFilter}
+     */
+    static RequestMetrics startTiming() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null && metrics.phases == null) {
+            metrics.phases = new long[PHASES.length];
+        }
+        return metrics;
+    }
+
+    /**
+     * @return si se miden las fases de la petición en curso
+     */
+    static boolean isTiming() {
+        RequestMetrics metrics = CURRENT.get();
+        return metrics != null && metrics.phases != null;
+    }
+
+    /**
+     * Suma nanos a la fase de la petición en curso, si se mide
+     */
+    static void time(Phase phase, long nanos) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null && metrics.phases != null) {
+            metrics.phases[phase.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Empieza la escritura del cuerpo de la respuesta; la fase termina al enviarse la respuesta
+     * (o al llenarse el búfer, si el cuerpo es más grande)
+     */
+    static void writeStarted() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null && metrics.phases != null && metrics.writeStart == 0) {
+            metrics.writeStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Valor del encabezado Server-Timing con las fases medidas (en milisegundos) y el total,
+     * p. ej. auth;dur=0.412, svc;dur=12.034, db;dur=9.871, write;dur=0.655, total;dur=14.210
+     *
+     * @param start inicio de la petición (System.nanoTime)
+     */
+    String serverTiming(long start) {
+        long now = System.nanoTime();
+        if (writeStart != 0) {
+            phases[Phase.WRITE.ordinal()] = now - writeStart;
+        }
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            if (phases[phase.ordinal()] > 0) {
+                appendMetric(header, phase.metric, phases[phase.ordinal()]).append(", ");
+            }
+        }
+        return appendMetric(header, "total", now - start).toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String metric, long nanos) {
+        long micros = nanos / 1_000;
+        header.append(metric).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            header.append(fraction < 10 ? "00" : "0");
+        }
+        return header.append(fraction);
+    }
+
+    /**
+     * Se ejecutó (o preparó) una sentencia SQL
+     */
+    static void statementExecuted(String sql) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.statements++;
+            if (metrics.captured != null && metrics.captured.size() < MAX_CAPTURED) {
+                metrics.captured.add(sql);
+            }
+        }
+    }
+
+    /**
+     * Se obtuvo una conexión del DataSource
+     *
+     * @return los contadores de la petición en curso, a los que se avisa al cerrar la conexión; null fuera de una petición
+     */
+    static RequestMetrics connectionOpened() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.maxOpenConnections = Math.max(metrics.maxOpenConnections, ++metrics.openConnections);
+        }
+        return metrics;
+    }
+
+    /**
+     * Se cerró (devolvió al pool) una conexión obtenida durante la petición
+     */
+    void connectionClosed() {
+        openConnections--;
+    }
+
+    /**
+     * Hibernate cargó una entidad desde la base de datos
+     */
+    static void entityLoaded() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.entityLoads++;
+        }
+    }
+
+    void setStatementBudget(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    /**
+     * @return máximo de conexiones que la petición tuvo abiertas al mismo tiempo
+     */
+    public int getMaxOpenConnections() {
+        return maxOpenConnections;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public boolean isOverBudget() {
+        return statementBudget > 0 && statements > statementBudget;
+    }
+
+    /**
+     * @return si la petición se muestreó, huella de cada sentencia -> ejecuciones; si no, un mapa vacío
+     */
+    public Map<String, Integer> getStatementFingerprints() {
+        return captured == null ? Map.of() : SqlFingerprint.count(captured);
+    }
+}
@@ -0,0 +1,161 @@
+package rest.pkbe.config;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.catalina.connector.ResponseFacade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Registra por endpoint (método y patrón de la ruta) la distribución de:
+ * - sentencias SQL y entidades cargadas por Hibernate en la petición ({@link RequestMetrics})
+ * - tamaño del cuerpo de la petición (Content-Length) y de la respuesta (bytes escritos, según Tomcat)
+ *
+ * La latencia y el throughput por endpoint ya los registra Spring en http.server.requests.
+ * Los medidores de cada endpoint se crean una vez y se reutilizan, registrar una petición no crea objetos.
+ *
+ * También vigila el presupuesto de sentencias SQL ({@link StatementBudget} o sql.budget.default): las peticiones que
+ * se pasan cuentan en pkbe.request.statement.budget.exceeded y, si la petición se muestreó (sql.budget.sample-rate),
+ * se registra un WARN con la ruta y las huellas de sus sentencias.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final int defaultBudget;
+    private final double sampleRate;
+    // método HTTP -> patrón de la ruta -> medidores
+    private final Map<String, Map<String, EndpointMeters>> meters = new ConcurrentHashMap<>();
+    // método del controller -> presupuesto de sentencias
+    private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    public RequestMetricsFilter(MeterRegistry registry, int defaultBudget, double sampleRate) {
+        this.registry = registry;
+        this.defaultBudget = defaultBudget;
+        this.sampleRate = sampleRate;
+    }
+
+    private record EndpointMeters(DistributionSummary statements, DistributionSummary entityLoads,
+        DistributionSummary requestSize, DistributionSummary responseSize, Counter budgetExceeded) {}
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+
+        boolean sampled = sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+        RequestMetrics metrics = RequestMetrics.start(sampled);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestMetrics.end();
+            metrics.setStatementBudget(budget(request));
+            request.setAttribute(RequestMetrics.ATTRIBUTE, metrics);
+            if (request.isAsyncStarted()) {
+                // La respuesta se termina de escribir en segundo plano (GET /notes/export)
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, metrics);
+                    }
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+                    @Override
+                    public void onError(AsyncEvent event) {}
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {}
+                });
+            } else {
+                record(request, response, metrics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestMetrics metrics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        EndpointMeters endpoint = meters
+            .computeIfAbsent(request.getMethod(), method -> new ConcurrentHashMap<>())
+            .computeIfAbsent(pattern == null ? "UNKNOWN" : pattern.toString(), uri -> register(request.getMethod(), uri));
+        endpoint.statements().record(metrics.getStatements());
+        endpoint.entityLoads().record(metrics.getEntityLoads());
+        if (metrics.isOverBudget()) {
+            endpoint.budgetExceeded().increment();
+            Map<String, Integer> fingerprints = metrics.getStatementFingerprints();
+            if (!fingerprints.isEmpty() && logger.isWarnEnabled()) {
+                StringBuilder message = new StringBuilder();
+                fingerprints.forEach((sql, count) -> message.append(System.lineSeparator()).append("  ").append(count).append(" x ").append(sql));
+                logger.warn("Presupuesto de sentencias SQL excedido: {} {} ({}) ejecutó {} sentencias, presupuesto {}{}",
+                    request.getMethod(), request.getRequestURI(), pattern, metrics.getStatements(), metrics.getStatementBudget(), message);
+            }
+        }
+        long requestSize = request.getContentLengthLong();
+        if (requestSize >= 0) {
+            endpoint.requestSize().record(requestSize);
+        }
+        long responseSize = contentWritten(response);
+        if (responseSize >= 0) {
+            endpoint.responseSize().record(responseSize);
+        }
+    }
+
+    private EndpointMeters register(String method, String uri) {
+        return new EndpointMeters(
+            summary("pkbe.request.statements", "Sentencias SQL por petición", null, 1_000, method, uri),
+            summary("pkbe.request.entity.loads", "Entidades cargadas por Hibernate por petición", null, 100_000, method, uri),
+            summary("pkbe.request.size", "Tamaño del cuerpo de la petición", "bytes", 64L << 20, method, uri),
+            summary("pkbe.response.size", "Tamaño del cuerpo de la respuesta", "bytes", 64L << 20, method, uri),
+            Counter.builder("pkbe.request.statement.budget.exceeded")
+                .description("Peticiones que ejecutaron más sentencias SQL que su presupuesto")
+                .tags("method", method, "uri", uri)
+                .register(registry));
+    }
+
+    private int budget(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return budgets.computeIfAbsent(handler.getMethod(), method -> {
+                StatementBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, StatementBudget.class);
+                return budget == null ? defaultBudget : budget.value();
+            });
+        }
+        return defaultBudget;
+    }
+
+    private DistributionSummary summary(String name, String description, String unit, double max, String method, String uri) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .baseUnit(unit)
+            .tags("method", method, "uri", uri)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(max)
+            .register(registry);
+    }
+
+    // Bytes del cuerpo escritos por la aplicación, los cuenta Tomcat sin envolver el OutputStream
+    static long contentWritten(ServletResponse response) {
+        while (response instanceof ServletResponseWrapper wrapper) {
+            response = wrapper.getResponse();
+        }
+        return response instanceof ResponseFacade facade ? facade.getContentWritten() : -1;
+    }
+}
@@ -0,0 +1,12 @@
+package rest.pkbe.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled) de la aplicación, como la purga de tokens expirados.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,9 @@
 package rest.pkbe.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,7 +15,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,6 +23,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 /**
  * Configuración principal de seguridad para la aplicación.
@@ -40,23 +42,37 @@ public class SecurityConfig {
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
     /**
-     * Bean para codificar contraseñas usando BCrypt.
+     * Bean para codificar contraseñas usando BCrypt en un pool de hilos acotado.
      */
-    @Bean
-    PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    BoundedPasswordEncoder passwordEncoder(
+        // Costo de BCrypt (log2 de las rondas). Al cambiarlo, las contraseñas se vuelven a cifrar en el siguiente login
+        @Value("${security.bcrypt.strength:10}") int strength,
+        // Hilos dedicados a BCrypt, peticiones que pueden esperar turno y tiempo máximo de espera antes de responder 503
+        @Value("${security.bcrypt.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+        @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity,
+        @Value("${security.bcrypt.timeout:5s}") Duration timeout){
+
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, timeout);
     }
 
     /**
      * Configura la cadena de filtros de seguridad de Spring Security.
      *   Deshabilita CSRF (no necesario para APIs REST con JWT)
      *   Permite acceso libre a /auth/** y /error
+     *   Permite acceso libre a la salud de Actuator; las métricas (/actuator/prometheus) requieren autenticación
+     *   salvo en el puerto de administración (management.server.port), que no debe exponerse públicamente
      *   Requiere autenticación para cualquier otro endpoint
      *   Establece la política de sesión como Stateless
      *   Agrega el filtro JWT antes del filtro de autenticación por usuario/contraseña
      */
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http,
+        @Value("${server.port:8080}") int serverPort,
+        // Puerto de administración de Actuator, -1 si los endpoints se sirven en el puerto de la aplicación
+        @Value("${management.server.port:-1}") int managementPort) throws Exception {
+
+        boolean separateManagementPort = managementPort > 0 && managementPort != serverPort;
         return http
             .cors(cors -> cors
                 .configurationSource(corsConfigurationSource())
@@ -67,6 +83,15 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/login", "/auth/register", "/auth/refresh").permitAll() 
                 .requestMatchers("/error").permitAll()
+                // Salud de Actuator para el monitoreo; las métricas revelan latencias, saturación y fallos de autenticación,
+                // en el puerto público caen en anyRequest().authenticated()
+                .requestMatchers("/actuator/health").permitAll()
+                // En el puerto de administración Actuator es accesible sin token (solo lo que se exponga con
+                // management.endpoints.web.exposure.include)
+                .requestMatchers(request -> separateManagementPort && request.getLocalPort() == managementPort).permitAll()
+                // El despacho ASYNC ocurre al terminar una respuesta en segundo plano (GET /notes/export),
+                // la petición original ya fue autorizada y el filtro JWT no se ejecuta de nuevo
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/", "/index.html", "/css/**", "/js/**", "/images/**").permitAll()
                 .anyRequest().authenticated()
             )
@@ -96,9 +121,11 @@ public class SecurityConfig {
      * Bean que define el proveedor de autenticación usando el servicio personalizado y el encoder de contraseñas.
      */
     @Bean
-    AuthenticationProvider authenticationProvider(){
+    AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder){
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Si el costo de BCrypt cambió, la contraseña se vuelve a cifrar tras un login exitoso
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -0,0 +1,76 @@
+package rest.pkbe.config;
+
+import java.io.IOException;
+
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Agrega a la respuesta el encabezado Server-Timing con el desglose de la petición por {@link RequestMetrics.Phase}
+ * (autenticación, carga del usuario, servicios, base de datos y escritura de la respuesta) y el total.
+ * Solo se registra con server-timing.enabled=true: expone tiempos internos a cualquier cliente.
+ *
+ * Debe ejecutarse dentro de {@link RequestMetricsFilter}. El encabezado se escribe justo antes de enviar la respuesta
+ * (el conversor de mensajes hace flush al terminar de serializar) o, si nada la envió, al terminar la cadena.
+ *
+ * Los encabezados salen con el primer envío, y el contenedor envía la respuesta también cuando se llena su búfer
+ * (8 KB en Tomcat). En los cuerpos más grandes que el búfer (listados largos, lecturas fila por fila) write, db y
+ * total cubren solo hasta ese primer envío: la serialización y las consultas posteriores no se incluyen.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+        throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        RequestMetrics metrics = RequestMetrics.startTiming();
+        if (metrics == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ServerTimingResponse timingResponse = new ServerTimingResponse(response, metrics, start);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            // Las respuestas asíncronas (GET /notes/export) escriben el encabezado al enviarse desde su propio hilo,
+            // con las fases del hilo de la petición: la consulta y la escritura en segundo plano no se miden
+            if (!request.isAsyncStarted()) {
+                timingResponse.writeHeader();
+            }
+        }
+    }
+
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final RequestMetrics metrics;
+        private final long start;
+
+        private ServerTimingResponse(HttpServletResponse response, RequestMetrics metrics, long start) {
+            super(response);
+            this.metrics = metrics;
+            this.start = start;
+        }
+
+        // También se llama cuando se llena el búfer a mitad del cuerpo: las fases se toman como van en ese momento
+        @Override
+        protected void onResponseCommitted() {
+            setHeader(HEADER, metrics.serverTiming(start));
+        }
+
+        private void writeHeader() {
+            if (!isDisableOnResponseCommitted() && !isCommitted()) {
+                onResponseCommitted();
+                disableOnResponseCommitted();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package rest.pkbe.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias SQL que puede ejecutar una petición al endpoint (método de un controller).
+ * {@link RequestMetricsFilter} cuenta las sentencias de cada petición y registra las que se pasan del presupuesto;
+ * los endpoints sin la anotación usan sql.budget.default.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StatementBudget {
+
+    int value();
+}
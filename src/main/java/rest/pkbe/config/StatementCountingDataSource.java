@@ -0,0 +1,113 @@
+package rest.pkbe.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que cuenta en {@link RequestMetrics} las sentencias SQL de la petición en curso,
+ * sin importar si las ejecuta Hibernate, un JdbcTemplate o código JDBC directo.
+ *
+ * - PreparedStatement / CallableStatement: se cuentan al prepararse (Hibernate prepara una por ejecución;
+ *   un lote con addBatch y executeBatch cuenta una vez)
+ * - Statement: se cuenta cada execute* con SQL y cada executeBatch
+ * - Connection: se cuentan las conexiones abiertas a la vez (de getConnection a close)
+ *
+ * Si la petición mide sus fases (Server-Timing) también suma la espera por la conexión (conn) y la duración de cada
+ * execute* (db); solo entonces se envuelven las sentencias preparadas, sin Server-Timing no se crean más proxies.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        RequestMetrics.time(RequestMetrics.Phase.CONNECTION, System.nanoTime() - start);
+        return counting(connection, RequestMetrics.connectionOpened());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        RequestMetrics.time(RequestMetrics.Phase.CONNECTION, System.nanoTime() - start);
+        return counting(connection, RequestMetrics.connectionOpened());
+    }
+
+    private static Connection counting(Connection connection, RequestMetrics metrics) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.equals("close") && metrics != null && closed.compareAndSet(false, true)) {
+                    metrics.connectionClosed();
+                }
+                boolean prepare = name.equals("prepareStatement") || name.equals("prepareCall");
+                if (prepare && args[0] instanceof String sql) {
+                    RequestMetrics.statementExecuted(sql);
+                }
+                Object result = invoke(connection, method, args);
+                if (name.equals("createStatement")) {
+                    return counting((Statement) result);
+                }
+                if (prepare && RequestMetrics.isTiming()) {
+                    return timed((Statement) result, name.equals("prepareCall") ? CallableStatement.class : PreparedStatement.class);
+                }
+                return result;
+            });
+    }
+
+    private static Statement counting(Statement statement) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("execute")) {
+                    if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                        RequestMetrics.statementExecuted(sql);
+                    } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                        RequestMetrics.statementExecuted("batch");
+                    }
+                    return execute(statement, method, args);
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static Statement timed(Statement statement, Class<? extends Statement> type) {
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> method.getName().startsWith("execute")
+                ? execute(statement, method, args)
+                : invoke(statement, method, args));
+    }
+
+    private static Object execute(Statement statement, Method method, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invoke(statement, method, args);
+        } finally {
+            RequestMetrics.time(RequestMetrics.Phase.DB, System.nanoTime() - start);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package rest.pkbe.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Proxy que mide cada método de la interfaz de un servicio con un timer pkbe.service
+ * (etiquetas service, method y outcome success/error) con histograma de percentiles.
+ * Los timers se crean al construir el proxy, medir una llamada solo consulta un mapa y registra la duración.
+ * La duración también se suma a la fase svc de Server-Timing.
+ */
+final class TimedServiceProxy implements InvocationHandler {
+
+    private final Object target;
+    private final Map<Method, Timer[]> timers = new HashMap<>();
+
+    private TimedServiceProxy(Object target, Class<?> serviceInterface, MeterRegistry registry) {
+        this.target = target;
+        for (Method method : serviceInterface.getMethods()) {
+            timers.put(method, new Timer[] {
+                timer(registry, serviceInterface, method, "success"),
+                timer(registry, serviceInterface, method, "error")
+            });
+        }
+    }
+
+    /**
+     * @return proxy que implementa serviceInterface y delega en target
+     */
+    static Object wrap(Object target, Class<?> serviceInterface, MeterRegistry registry) {
+        return Proxy.newProxyInstance(serviceInterface.getClassLoader(), new Class<?>[] {serviceInterface},
+            new TimedServiceProxy(target, serviceInterface, registry));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Timer[] methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            // equals, hashCode y toString de Object
+            return invokeTarget(method, args);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invokeTarget(method, args);
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            methodTimers[success ? 0 : 1].record(elapsed, TimeUnit.NANOSECONDS);
+            RequestMetrics.time(RequestMetrics.Phase.SERVICE, elapsed);
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, Class<?> serviceInterface, Method method, String outcome) {
+        return Timer.builder("pkbe.service")
+            .description("Duración de los métodos de los servicios")
+            .tags("service", serviceInterface.getSimpleName(), "method", method.getName(), "outcome", outcome)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(registry);
+    }
+}
@@ -4,10 +4,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import rest.pkbe.domain.model.User;
 import rest.pkbe.domain.repository.UserRepository;
 
 
@@ -20,10 +23,12 @@ import rest.pkbe.domain.repository.UserRepository;
  * el framework de seguridad.
  */
 @Service
-public class UserDetailsServiceConfig implements UserDetailsService {
+public class UserDetailsServiceConfig implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userpreRepository;
+    @Autowired
+    private PrincipalCache principalCache;
     private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceConfig.class);
 
     /**
@@ -44,5 +49,47 @@ public class UserDetailsServiceConfig implements UserDetailsService {
                     return new UsernameNotFoundException("Credenciales inválidas");
                 });
     }
-    
+
+    /**
+     * Obtiene el usuario autenticado a partir del id del token.
+     * Se consulta primero la caché de usuarios autenticados y solo en un fallo se va a la base de datos.
+     *
+     * @param userId id del usuario (subject del token)
+     * @return el usuario autenticado (id y email)
+     * @throws UsernameNotFoundException si el usuario no se encuentra registrado
+     */
+    public AuthenticatedUser loadPrincipalById(Long userId) throws UsernameNotFoundException {
+        AuthenticatedUser principal = principalCache.get(userId);
+        if (principal != null) {
+            return principal;
+        }
+        logger.debug("> Cargando datos para su validación...");
+        principal = userpreRepository.findById(userId)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail()))
+                .orElseThrow(() -> {
+                    logger.error("Proceso de autenticación fallido: Usuario no encontrado");
+                    return new UsernameNotFoundException("Credenciales inválidas");
+                });
+        principalCache.put(principal);
+        return principal;
+    }
+
+    /**
+     * Guarda la contraseña cifrada de nuevo con el costo actual de BCrypt.
+     * DaoAuthenticationProvider la invoca tras un login exitoso cuando el hash guardado usa otro costo.
+     *
+     * @param user usuario autenticado (la entidad User cargada en loadUserByUsername)
+     * @param newPassword la contraseña cifrada con el costo actual
+     * @return el usuario con la contraseña actualizada
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userpreRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Credenciales inválidas"));
+        entity.setPasswordHash(newPassword);
+        logger.info("Contraseña cifrada de nuevo con el costo actual [!]");
+        return userpreRepository.save(entity);
+    }
+
 }
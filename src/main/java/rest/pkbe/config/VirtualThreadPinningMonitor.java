@@ -0,0 +1,122 @@
+package rest.pkbe.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Detecta cuándo un hilo virtual queda fijado a su hilo portador (pinning): se bloquea dentro de un bloque
+ * synchronized o de código nativo y no libera al portador, así que con pocos portadores el resto de peticiones
+ * se detiene. Escucha el evento de JFR jdk.VirtualThreadPinned y agrupa los casos por el método de la aplicación
+ * (o de la librería) donde ocurrieron; el primero de cada lugar se registra con su pila y cada lugar se cuenta en la
+ * métrica pkbe.threads.virtual.pinned (etiqueta site).
+ * Está activo por defecto cuando la aplicación usa hilos virtuales.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    // lugar (clase.método:línea) -> número de veces que un hilo virtual quedó fijado ahí
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+    private RecordingStream stream;
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    public VirtualThreadPinningMonitor(
+        @Value("${diagnostics.pinning.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+        @Value("${diagnostics.pinning.threshold:20ms}") Duration threshold) {
+
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        logger.info("Diagnóstico de pinning de hilos virtuales activo (umbral {} ms)", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = site(event);
+        LongAdder count = pinnedBySite.computeIfAbsent(site, key -> new LongAdder());
+        count.increment();
+        if (registry != null) {
+            // Registrar un contador ya existente solo lo busca; los eventos son raros (umbral de duración)
+            register(registry, site, count);
+        }
+        if (count.sum() == 1) {
+            logger.warn("Hilo virtual fijado a su portador durante {} ms en {}\n{}",
+                event.getDuration().toMillis(), site, stackTrace(event));
+        }
+    }
+
+    /**
+     * Exporta el número de eventos de pinning por lugar; los lugares nuevos se registran al ocurrir su primer evento
+     */
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        pinnedBySite.forEach((site, count) -> register(registry, site, count));
+    }
+
+    private static void register(MeterRegistry registry, String site, LongAdder count) {
+        FunctionCounter.builder("pkbe.threads.virtual.pinned", count, LongAdder::sum)
+            .description("Veces que un hilo virtual quedó fijado a su portador más tiempo que el umbral")
+            .tag("site", site)
+            .register(registry);
+    }
+
+    // Primer marco de la pila que no pertenece al JDK, es donde está el synchronized que lo causa
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "desconocido";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "jdk";
+    }
+
+    private static String stackTrace(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "";
+        }
+        StringBuilder trace = new StringBuilder();
+        event.getStackTrace().getFrames().stream().limit(LOGGED_FRAMES).forEach(frame -> trace
+            .append("\tat ").append(frame.getMethod().getType().getName()).append('.')
+            .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n'));
+        return trace.toString();
+    }
+}
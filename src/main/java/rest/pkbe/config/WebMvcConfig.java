@@ -0,0 +1,29 @@
+package rest.pkbe.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuración de Spring MVC.
+ * Las respuestas que se escriben en segundo plano (StreamingResponseBody, como GET /notes/export)
+ * usan el timeout asíncrono del contenedor, que en Tomcat es de 30 segundos y cortaría
+ * exportaciones grandes o clientes lentos, por eso se amplía.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final Duration asyncRequestTimeout;
+
+    public WebMvcConfig(@Value("${spring.mvc.async.request-timeout:1h}") Duration asyncRequestTimeout) {
+        this.asyncRequestTimeout = asyncRequestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
+}
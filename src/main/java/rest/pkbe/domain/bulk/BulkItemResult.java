@@ -0,0 +1,29 @@
+package rest.pkbe.domain.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de un elemento dentro de una operación en lote.
+ * Si el elemento se guardó contiene el id generado, si no, el motivo del fallo.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkItemResult {
+
+    private final int index;
+    private final Long id;
+    private final String error;
+
+    public static BulkItemResult created(int index, Long id) {
+        return new BulkItemResult(index, id, null);
+    }
+
+    public static BulkItemResult failed(int index, String error) {
+        return new BulkItemResult(index, null, error);
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+}
@@ -0,0 +1,22 @@
+package rest.pkbe.domain.export;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Nota completa con los nombres de sus tags, tal como se escribe en la exportación.
+ */
+@Getter
+@AllArgsConstructor
+public class NoteExport {
+
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Set<String> tags;
+}
@@ -0,0 +1,22 @@
+package rest.pkbe.domain.export;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección plana de una nota para la exportación (una fila por tag, tagName es null si no tiene).
+ * Se lee sin entidades, por lo que el contexto de persistencia no crece durante la exportación.
+ */
+public interface NoteExportRow {
+
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    String getTagName();
+}
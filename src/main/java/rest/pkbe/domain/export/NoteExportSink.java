@@ -0,0 +1,14 @@
+package rest.pkbe.domain.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino de la exportación de notas, recibe las notas por bloques en orden (createdAt, id).
+ * Se invoca fuera de la transacción, por lo que escribir a un cliente lento no retiene una conexión.
+ */
+@FunctionalInterface
+public interface NoteExportSink {
+
+    void write(List<NoteExport> chunk) throws IOException;
+}
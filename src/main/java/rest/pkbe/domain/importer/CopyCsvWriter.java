@@ -0,0 +1,75 @@
+package rest.pkbe.domain.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Escribe filas en formato CSV hacia un COPY ... FROM STDIN WITH (FORMAT csv) de PostgreSQL.
+ * Las filas se acumulan en un búfer que se envía al servidor cada BUFFER_CHARS caracteres,
+ * así la memoria no depende del número de filas.
+ * Un valor null se escribe sin comillas (NULL en CSV), el resto de los valores se escriben entre comillas.
+ */
+public class CopyCsvWriter {
+
+    private static final int BUFFER_CHARS = 1 << 20;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(BUFFER_CHARS + 4096);
+
+    public CopyCsvWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Number) {
+                buffer.append(value);
+                continue;
+            }
+            buffer.append('"');
+            String text = value.toString();
+            for (int c = 0; c < text.length(); c++) {
+                char ch = text.charAt(c);
+                if (ch == '"') {
+                    buffer.append('"');
+                }
+                // PostgreSQL no admite el carácter NUL en columnas de texto
+                if (ch != '\0') {
+                    buffer.append(ch);
+                }
+            }
+            buffer.append('"');
+        }
+        buffer.append('\n');
+        if (buffer.length() >= BUFFER_CHARS) {
+            flush();
+        }
+    }
+
+    /**
+     * Envía lo pendiente y termina el COPY
+     * @return número de filas copiadas
+     */
+    public long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
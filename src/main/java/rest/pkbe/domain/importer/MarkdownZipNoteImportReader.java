@@ -0,0 +1,170 @@
+package rest.pkbe.domain.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * Lee notas de un zip de archivos markdown (.md), un archivo por nota.
+ * El front-matter YAML opcional al inicio del archivo define title, tags (lista o separadas por comas)
+ * y created/createdAt/date. Sin título se usa el nombre del archivo; el resto del archivo es el contenido.
+ * Los archivos se leen uno a la vez desde el stream del zip, sin descomprimirlo completo.
+ */
+class MarkdownZipNoteImportReader implements NoteImportReader {
+
+    // Tamaño máximo de un archivo markdown, acota la memoria usada por nota
+    private static final int MAX_ENTRY_BYTES = 16 * 1024 * 1024;
+
+    private final ZipInputStream zip;
+    private final Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
+
+    MarkdownZipNoteImportReader(InputStream in) {
+        this.zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public NoteImportRecord next() throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = entry.getName();
+            String fileName = name.substring(name.lastIndexOf('/') + 1);
+            if (entry.isDirectory() || name.startsWith("__MACOSX/") || fileName.startsWith(".")
+                || !(fileName.toLowerCase().endsWith(".md") || fileName.toLowerCase().endsWith(".markdown"))) {
+                continue;
+            }
+            String text = readEntry();
+            if (text == null) {
+                return NoteImportRecord.invalid(name, "El archivo supera " + MAX_ENTRY_BYTES / (1024 * 1024) + " MB");
+            }
+            return parse(name, fileName.substring(0, fileName.lastIndexOf('.')), text);
+        }
+        return null;
+    }
+
+    /**
+     * @return el contenido del archivo actual del zip o null si supera el tamaño máximo
+     */
+    private String readEntry() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = zip.read(buffer)) != -1) {
+            if (bytes.size() + read > MAX_ENTRY_BYTES) {
+                zip.closeEntry();
+                return null;
+            }
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private NoteImportRecord parse(String source, String defaultTitle, String text) {
+        if (text.startsWith("\uFEFF")) {
+            text = text.substring(1);
+        }
+        String title = defaultTitle;
+        Set<String> tags = new LinkedHashSet<>();
+        LocalDateTime createdAt = null;
+        String content = text;
+
+        if (text.startsWith("---\n") || text.startsWith("---\r\n")) {
+            int start = text.indexOf('\n') + 1;
+            int end = findFrontMatterEnd(text, start);
+            if (end < 0) {
+                return NoteImportRecord.invalid(source, "Front-matter sin cerrar");
+            }
+            Map<?, ?> frontMatter;
+            try {
+                Object loaded = yaml.load(text.substring(start, end));
+                frontMatter = loaded instanceof Map<?, ?> map ? map : Map.of();
+            } catch (YAMLException ex) {
+                return NoteImportRecord.invalid(source, "Front-matter inválido");
+            }
+            int bodyStart = text.indexOf('\n', end);
+            content = bodyStart < 0 ? "" : text.substring(bodyStart + 1);
+
+            Object titleValue = frontMatter.get("title");
+            if (titleValue != null && !titleValue.toString().isBlank()) {
+                title = titleValue.toString();
+            }
+            Object tagsValue = frontMatter.get("tags");
+            if (tagsValue instanceof Collection<?> list) {
+                list.forEach(tag -> tags.add(String.valueOf(tag).trim()));
+            } else if (tagsValue != null) {
+                for (String tag : tagsValue.toString().split(",")) {
+                    tags.add(tag.trim());
+                }
+            }
+            Object created = firstNonNull(frontMatter.get("created"), frontMatter.get("createdAt"), frontMatter.get("date"));
+            try {
+                createdAt = toLocalDateTime(created);
+            } catch (DateTimeParseException ex) {
+                return NoteImportRecord.invalid(source, "Fecha de creación inválida");
+            }
+        }
+        return NoteImportRecord.parsed(source, title, content.strip(), tags, createdAt);
+    }
+
+    /**
+     * Busca la línea "---" (o "...") que cierra el front-matter
+     * @return la posición donde inicia esa línea o -1 si no existe
+     */
+    private static int findFrontMatterEnd(String text, int from) {
+        int lineStart = from;
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            String line = (lineEnd < 0 ? text.substring(lineStart) : text.substring(lineStart, lineEnd)).stripTrailing();
+            if (line.equals("---") || line.equals("...")) {
+                return lineStart;
+            }
+            if (lineEnd < 0) {
+                return -1;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return -1;
+    }
+
+    private static Object firstNonNull(Object... values) {
+        for (Object value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        // SnakeYAML convierte las fechas a Date interpretándolas en UTC
+        if (value instanceof Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC);
+        }
+        String text = value.toString().trim();
+        return text.length() <= 10 ? LocalDate.parse(text).atStartOfDay() : LocalDateTime.parse(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        zip.close();
+    }
+}
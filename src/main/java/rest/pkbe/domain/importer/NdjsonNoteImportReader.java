@@ -0,0 +1,76 @@
+package rest.pkbe.domain.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lee notas en formato NDJSON (una nota por línea): title, content, tags y opcionalmente createdAt.
+ * Los demás campos (id, updatedAt) se ignoran, así un archivo de GET /notes/export se puede importar tal cual.
+ * Una línea inválida se reporta como error sin detener la lectura del resto.
+ */
+class NdjsonNoteImportReader implements NoteImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonNoteImportReader(InputStream in, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 65536);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public NoteImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        String source = "línea " + lineNumber;
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException ex) {
+            return NoteImportRecord.invalid(source, "JSON inválido");
+        }
+        if (!node.isObject()) {
+            return NoteImportRecord.invalid(source, "Se esperaba un objeto JSON");
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        JsonNode tagsNode = node.path("tags");
+        if (tagsNode.isArray()) {
+            tagsNode.forEach(tag -> tags.add(tag.asText()));
+        }
+        LocalDateTime createdAt = null;
+        String created = node.path("createdAt").asText(null);
+        if (created != null && !created.isBlank()) {
+            try {
+                createdAt = LocalDateTime.parse(created);
+            } catch (DateTimeParseException ex) {
+                return NoteImportRecord.invalid(source, "createdAt inválido");
+            }
+        }
+        return NoteImportRecord.parsed(source, node.path("title").asText(null), node.path("content").asText(null),
+            tags, createdAt);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
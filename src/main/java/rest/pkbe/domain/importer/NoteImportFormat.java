@@ -0,0 +1,28 @@
+package rest.pkbe.domain.importer;
+
+/**
+ * Formatos aceptados por la importación de notas, identificados por el Content-Type de la petición.
+ * - NDJSON: una nota por línea, el mismo formato que genera GET /notes/export
+ * - NDJSON_GZIP: NDJSON comprimido con gzip (GET /notes/export?gzip=true)
+ * - MARKDOWN_ZIP: zip con archivos .md, el título y las tags se leen del front-matter
+ */
+public enum NoteImportFormat {
+    NDJSON,
+    NDJSON_GZIP,
+    MARKDOWN_ZIP;
+
+    public static NoteImportFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase();
+        switch (type) {
+            case "application/x-ndjson":
+                return NDJSON;
+            case "application/gzip":
+                return NDJSON_GZIP;
+            case "application/zip":
+                return MARKDOWN_ZIP;
+            default:
+                throw new IllegalArgumentException(
+                    "Formato no soportado, use application/x-ndjson, application/gzip o application/zip");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package rest.pkbe.domain.importer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * Estado de una importación de notas que se ejecuta en segundo plano.
+ * Los contadores se actualizan desde el hilo de la importación y se consultan desde las peticiones
+ * de progreso, por eso son atómicos o volatile.
+ */
+@Getter
+public class NoteImportJob {
+
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    // Número máximo de errores individuales que se conservan para el reporte
+    private static final int MAX_ERRORS = 20;
+
+    private final UUID id = UUID.randomUUID();
+    private final Long userId;
+    private final NoteImportFormat format;
+    private final long totalBytes;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong notesRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private volatile Status status = Status.PENDING;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public NoteImportJob(Long userId, NoteImportFormat format, long totalBytes) {
+        this.userId = userId;
+        this.format = format;
+        this.totalBytes = totalBytes;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * Registra una nota que no se importó, solo se conservan los primeros MAX_ERRORS mensajes
+     */
+    public void recordFailure(String source, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(source + ": " + message);
+            }
+        }
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    /**
+     * Porcentaje del archivo procesado (0 - 100)
+     */
+    public int getProgress() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        if (totalBytes <= 0) {
+            return 0;
+        }
+        return (int) Math.min(99, bytesRead.get() * 100 / totalBytes);
+    }
+
+    /**
+     * Envuelve el archivo de la importación para contar los bytes leídos y así calcular el progreso
+     */
+    public InputStream track(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytesRead.incrementAndGet();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    bytesRead.addAndGet(read);
+                }
+                return read;
+            }
+        };
+    }
+}
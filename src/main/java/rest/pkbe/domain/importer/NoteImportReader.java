@@ -0,0 +1,31 @@
+package rest.pkbe.domain.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lector secuencial de un archivo de importación, entrega una nota a la vez
+ * para que la memoria no dependa del tamaño del archivo.
+ */
+public interface NoteImportReader extends Closeable {
+
+    /**
+     * @return la siguiente nota o null cuando ya no hay más
+     */
+    NoteImportRecord next() throws IOException;
+
+    static NoteImportReader open(NoteImportFormat format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        switch (format) {
+            case NDJSON_GZIP:
+                return new NdjsonNoteImportReader(new GZIPInputStream(in, 65536), objectMapper);
+            case MARKDOWN_ZIP:
+                return new MarkdownZipNoteImportReader(in);
+            default:
+                return new NdjsonNoteImportReader(in, objectMapper);
+        }
+    }
+}
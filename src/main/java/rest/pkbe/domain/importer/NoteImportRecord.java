@@ -0,0 +1,37 @@
+package rest.pkbe.domain.importer;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Nota leída de un archivo de importación.
+ * source identifica su origen (línea o archivo) para reportar errores, si la nota no se pudo
+ * interpretar error contiene el motivo y el resto de los campos son null.
+ */
+@Getter
+@AllArgsConstructor
+public class NoteImportRecord {
+
+    private final String source;
+    private final String title;
+    private final String content;
+    private final Set<String> tags;
+    private final LocalDateTime createdAt;
+    private final String error;
+
+    public static NoteImportRecord parsed(String source, String title, String content, Set<String> tags,
+        LocalDateTime createdAt) {
+        return new NoteImportRecord(source, title, content, tags, createdAt, null);
+    }
+
+    public static NoteImportRecord invalid(String source, String error) {
+        return new NoteImportRecord(source, null, null, null, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
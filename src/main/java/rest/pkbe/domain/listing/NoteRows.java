@@ -0,0 +1,24 @@
+package rest.pkbe.domain.listing;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Filas de un listado de notas (una por nota y tag, o una sola si la nota no tiene tags) que se leen de la base de
+ * datos al recorrerlas, sin crear entidades ni DTOs. Las filas de una misma nota llegan juntas y en el orden del listado.
+ * Cada forEach ejecuta la consulta de nuevo.
+ */
+@FunctionalInterface
+public interface NoteRows {
+
+    // Columnas de cada fila (ResultSet, base 1)
+    int ID = 1;
+    int TITLE = 2;
+    int CONTENT = 3;
+    int CREATED_AT = 4;
+    // null si la nota no tiene tags
+    int TAG_NAME = 5;
+
+    NoteRows EMPTY = handler -> {};
+
+    void forEach(RowCallbackHandler handler);
+}
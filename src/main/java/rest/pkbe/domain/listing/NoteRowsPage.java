@@ -0,0 +1,13 @@
+package rest.pkbe.domain.listing;
+
+/**
+ * Página de notas por keyset como filas ({@link NoteRows}). El cursor de la siguiente página sale de la última llave
+ * de la página y no de las filas, así sigue siendo válido aunque sus notas se borren antes de leerlas.
+ * @param nextCursor cursor de la siguiente página o null si no hay más
+ */
+public record NoteRowsPage(NoteRows rows, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -4,7 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.CascadeType;
@@ -17,6 +17,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -24,6 +27,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import rest.pkbe.domain.summary.NoteExcerpt;
 
 /**
  * Entidad JPA que representa una nota en el sistema.
@@ -40,11 +44,13 @@ import lombok.ToString;
 @ToString
 public class Note {
     /**
-     * Identificador único de la nota (clave primaria, autoincremental).
+     * Identificador único de la nota (clave primaria).
+     * Se obtiene de una secuencia en bloques de 50 para permitir inserciones en lote.
      */
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_id_seq")
+    @SequenceGenerator(name = "notes_id_seq", sequenceName = "notes_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -60,10 +66,18 @@ public class Note {
     private String content;
 
     /**
-     * Fecha y hora de creación de la nota (asignada automáticamente).
+     * Extracto del contenido (máximo 200 caracteres) para los listados resumidos.
+     * Se recalcula cada vez que la nota se inserta o actualiza.
      */
-    @Column(name = "created_at")
-    @CurrentTimestamp
+    @Column(name = "excerpt", nullable = false, length = NoteExcerpt.MAX_LENGTH)
+    private String excerpt;
+
+    /**
+     * Fecha y hora de creación de la nota (asignada automáticamente al insertarla).
+     * Se genera en la aplicación para no tener que leerla de regreso después de cada INSERT.
+     */
+    @Column(name = "created_at", updatable = false)
+    @CreationTimestamp
     private LocalDateTime createdAt;
 
     /**
@@ -85,4 +99,13 @@ public class Note {
      */
     @OneToMany(mappedBy = "note"/*, fetch = FetchType.LAZY*/, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<NoteTag> noteTags = new HashSet<>();
+
+    /**
+     * Mantiene el extracto sincronizado con el contenido antes de cada INSERT o UPDATE.
+     */
+    @PrePersist
+    @PreUpdate
+    private void updateExcerpt() {
+        this.excerpt = NoteExcerpt.of(content);
+    }
 }
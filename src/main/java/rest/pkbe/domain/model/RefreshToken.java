@@ -31,9 +31,17 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "token", nullable = false)
-    private String token;
+    /**
+     * SHA-256 (hex) del token de refresco vigente de la sesión, el JWT no se guarda.
+     */
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
 
+    /**
+     * SHA-256 del token que se rotó por última vez, permite detectar que se reutiliza un token ya rotado.
+     */
+    @Column(name = "previous_token_hash", length = 64)
+    private String previousTokenHash;
 
     @Column(name = "expiration_date")
     private LocalDateTime expirationDate;
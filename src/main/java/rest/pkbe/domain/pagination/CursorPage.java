@@ -0,0 +1,23 @@
+package rest.pkbe.domain.pagination;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Página de resultados obtenida con paginación por keyset.
+ * Contiene los elementos de la página y el cursor para solicitar la siguiente,
+ * el cual es null cuando ya no hay más resultados.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
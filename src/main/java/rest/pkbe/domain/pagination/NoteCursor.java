@@ -0,0 +1,56 @@
+package rest.pkbe.domain.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Cursor opaco para la paginación por keyset de las notas.
+ * Representa la posición de la última nota entregada mediante el par (createdAt, id),
+ * que coincide con el índice compuesto notes(user_id, created_at, id).
+ * Se serializa en Base64 URL-safe para que el cliente lo trate como un valor opaco.
+ */
+@Getter
+@AllArgsConstructor
+public class NoteCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    /**
+     * Codifica el cursor como un String opaco que el cliente envía de regreso en la siguiente petición.
+     * @return cursor codificado
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido por el cliente.
+     * @param cursor cursor codificado
+     * @return cursor con la posición de la última nota entregada
+     * @throws IllegalArgumentException si el cursor no tiene un formato válido
+     */
+    public static NoteCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new NoteCursor(createdAt, id);
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            // NumberFormatException también es IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
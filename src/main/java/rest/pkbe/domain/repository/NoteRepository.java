@@ -1,25 +1,133 @@
 package rest.pkbe.domain.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import rest.pkbe.domain.export.NoteExportRow;
 import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.pagination.NoteCursor;
+import rest.pkbe.domain.search.NoteSearchHit;
+import rest.pkbe.domain.search.NoteTextView;
+import rest.pkbe.domain.summary.NoteSummaryRow;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long>{
     
-    @Query("SELECT DISTINCT n FROM Note n LEFT JOIN FETCH n.noteTags WHERE n.user.id = :userId")
+    /**
+     * Las consultas "WithTags" cargan nota -> noteTags -> tag en una sola sentencia.
+     * Si solo se hace fetch de noteTags, cada Tag LAZY se inicializa por separado al leer su nombre
+     * (en el mapeo a DTO y en NoteTag.equals/hashCode), provocando N+1 consultas.
+     */
+    @Query("SELECT DISTINCT n FROM Note n LEFT JOIN FETCH n.noteTags nt LEFT JOIN FETCH nt.tag WHERE n.user.id = :userId")
     List<Note> findAllByUserIdWithTags(@Param("userId") Long userId);
 
+    /**
+     * Fecha de la última modificación de una nota, base de su ETag. Se resuelve con la llave primaria
+     * sin cargar la entidad ni sus tags.
+     */
+    @Query("SELECT COALESCE(n.updatedAt, n.createdAt) FROM Note n WHERE n.id = :noteId AND n.user.id = :userId")
+    Optional<LocalDateTime> findLastModified(@Param("noteId") Long noteId, @Param("userId") Long userId);
+
     boolean existsByIdAndUserId(@NonNull Long noteId, @NonNull Long userId);
 
+    /**
+     * Borra la nota del usuario con una sola sentencia; sus relaciones en note_tags se borran en la base de datos
+     * (ON DELETE CASCADE) en lugar de cargarlas y eliminarlas una por una.
+     * @return filas eliminadas, 0 si la nota no existe o no es del usuario
+     */
+    @Modifying
+    @Query("DELETE FROM Note n WHERE n.id = :noteId AND n.user.id = :userId")
+    int deleteByIdAndUserId(@Param("noteId") Long noteId, @Param("userId") Long userId);
+
     Optional<Note> findByIdAndUserId(@NonNull Long noteId, @NonNull Long userId);
     
-    @Query("SELECT n FROM Note n JOIN FETCH n.noteTags WHERE n.user.id = :userId AND n.id = :noteId")
+    @Query("SELECT n FROM Note n LEFT JOIN FETCH n.noteTags nt LEFT JOIN FETCH nt.tag WHERE n.user.id = :userId AND n.id = :noteId")
     Optional<Note> findByIdAndUserIdWithTags(@Param("userId") Long userId, @Param("noteId") Long noteId);
+
+    /**
+     * Paginación por keyset: se recuperan solo las llaves (createdAt, id) de la página usando el índice
+     * (user_id, created_at, id), después se cargan las notas con sus tags. Así el LIMIT se aplica en la base de datos
+     * y no en memoria, lo que no es posible cuando se hace JOIN FETCH de una colección. La llave de la última nota
+     * es el cursor de la siguiente página aunque esa nota se borre antes de cargarla.
+     */
+    @Query("SELECT new rest.pkbe.domain.pagination.NoteCursor(n.createdAt, n.id) FROM Note n WHERE n.user.id = :userId "
+        + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NoteCursor> findFirstPageKeysDesc(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT new rest.pkbe.domain.pagination.NoteCursor(n.createdAt, n.id) FROM Note n WHERE n.user.id = :userId "
+        + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+        + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NoteCursor> findPageKeysDescAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id, Limit limit);
+
+    @Query("SELECT new rest.pkbe.domain.pagination.NoteCursor(n.createdAt, n.id) FROM Note n WHERE n.user.id = :userId "
+        + "ORDER BY n.createdAt ASC, n.id ASC")
+    List<NoteCursor> findFirstPageKeysAsc(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT new rest.pkbe.domain.pagination.NoteCursor(n.createdAt, n.id) FROM Note n WHERE n.user.id = :userId "
+        + "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) "
+        + "ORDER BY n.createdAt ASC, n.id ASC")
+    List<NoteCursor> findPageKeysAscAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id, Limit limit);
+
+    @Query("SELECT DISTINCT n FROM Note n LEFT JOIN FETCH n.noteTags nt LEFT JOIN FETCH nt.tag WHERE n.id IN :ids")
+    List<Note> findAllByIdInWithTags(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Listado resumido: solo se leen título, extracto, fecha y nombre de las tags (una fila por tag),
+     * sin cargar el contenido completo ni entidades en el contexto de persistencia.
+     */
+    @Query("SELECT n.id AS id, n.title AS title, n.excerpt AS excerpt, n.createdAt AS createdAt, t.name AS tagName "
+        + "FROM Note n LEFT JOIN n.noteTags nt LEFT JOIN nt.tag t WHERE n.id IN :ids")
+    List<NoteSummaryRow> findSummaryRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Exportación: notas completas con el nombre de sus tags como filas planas (una por tag).
+     */
+    @Query("SELECT n.id AS id, n.title AS title, n.content AS content, n.createdAt AS createdAt, "
+        + "n.updatedAt AS updatedAt, t.name AS tagName "
+        + "FROM Note n LEFT JOIN n.noteTags nt LEFT JOIN nt.tag t WHERE n.id IN :ids")
+    List<NoteExportRow> findExportRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Búsqueda de texto completo sobre la columna generada search_vector (índice GIN).
+     * La subconsulta ordena y limita por relevancia, así ts_headline (costoso) solo se calcula
+     * para las notas de la página solicitada.
+     * El fragmento es HTML: el contenido se escapa (&, <, >, ") antes de ts_headline, así las únicas etiquetas
+     * son los <mark> que agrega el resaltado y el marcado guardado en una nota no se ejecuta en el cliente.
+     */
+    @Query(value = "SELECT p.id AS id, p.title AS title, p.created_at AS createdAt, p.rank AS rank, "
+        + "ts_headline('spanish', p.content, p.query, 'StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15') AS snippet "
+        + "FROM (SELECT n.id, n.title, "
+        + "      replace(replace(replace(replace(n.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), '\"', '&quot;') AS content, "
+        + "      n.created_at, q.query, ts_rank(n.search_vector, q.query) AS rank "
+        + "      FROM notes n, websearch_to_tsquery('spanish', :q) AS q(query) "
+        + "      WHERE n.user_id = :userId AND n.search_vector @@ q.query "
+        + "      ORDER BY rank DESC, n.id DESC LIMIT :limit OFFSET :offset) p "
+        + "ORDER BY p.rank DESC, p.id DESC", nativeQuery = true)
+    List<NoteSearchHit> search(@Param("userId") Long userId, @Param("q") String q,
+        @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Recorre el texto de las notas de un usuario sin cargar entidades, para construir el índice en memoria.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT n.id AS id, n.title AS title, n.content AS content, n.createdAt AS createdAt "
+        + "FROM Note n WHERE n.user.id = :userId ORDER BY n.createdAt ASC, n.id ASC")
+    Stream<NoteTextView> streamTextByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,54 @@
+package rest.pkbe.domain.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import rest.pkbe.domain.listing.NoteRows;
+
+/**
+ * Listados de notas leídos con JDBC fila por fila ({@link NoteRows}), para escribir la respuesta mientras se recorre
+ * el ResultSet. Las columnas siguen el orden de las constantes de NoteRows.
+ */
+@Repository
+public class NoteRowRepository {
+
+    private static final String SELECT = "SELECT n.id, n.title, n.content, n.created_at, t.name "
+        + "FROM notes n LEFT JOIN note_tags nt ON nt.note_id = n.id LEFT JOIN tags t ON t.id = nt.tag_id ";
+
+    // Los ids van en un solo arreglo: el texto de la sentencia no cambia con el tamaño de la página
+    private static final String BY_IDS_ASC = SELECT + "WHERE n.id = ANY (?) ORDER BY n.created_at ASC, n.id ASC";
+    private static final String BY_IDS_DESC = SELECT + "WHERE n.id = ANY (?) ORDER BY n.created_at DESC, n.id DESC";
+    private static final String BY_USER = SELECT + "WHERE n.user_id = ? ORDER BY n.created_at ASC, n.id ASC";
+
+    // Filas por viaje a la base de datos en el listado completo; solo aplica dentro de una transacción
+    private static final int FETCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Filas de las notas indicadas, ordenadas por (createdAt, id) en la dirección de la página
+     */
+    public void forEachRow(List<Long> ids, Sort.Direction direction, RowCallbackHandler handler) {
+        jdbcTemplate.query(direction == Sort.Direction.ASC ? BY_IDS_ASC : BY_IDS_DESC,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+            handler);
+    }
+
+    /**
+     * Filas de todas las notas del usuario, ordenadas por (createdAt, id)
+     */
+    public void forEachRowOfUser(Long userId, RowCallbackHandler handler) {
+        jdbcTemplate.query(BY_USER,
+            ps -> {
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setLong(1, userId);
+            },
+            handler);
+    }
+}
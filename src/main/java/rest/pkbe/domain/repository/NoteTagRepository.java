@@ -1,10 +1,21 @@
 package rest.pkbe.domain.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import rest.pkbe.domain.model.NoteTag;
 import rest.pkbe.domain.model.NoteTagId;
 
 public interface NoteTagRepository extends JpaRepository<NoteTag, NoteTagId>{
+
+    /**
+     * Liga una nota con varias tags en una sola sentencia
+     */
+    @Modifying
+    @Query(value = "INSERT INTO note_tags (note_id, tag_id) SELECT :noteId, unnest(CAST(:tagIds AS bigint[])) "
+        + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertAll(@Param("noteId") Long noteId, @Param("tagIds") Long[] tagIds);
     
 }
@@ -1,14 +1,65 @@
 package rest.pkbe.domain.repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import rest.pkbe.domain.model.RefreshToken;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long>{
-    
-    Optional<RefreshToken> findByTokenAndUserId(String token, Long userId);
+
+    /**
+     * Rota el token de la sesión en una sola sentencia: solo se actualiza si el hash corresponde al token
+     * vigente del usuario y no ha expirado. El hash anterior se conserva para detectar su reutilización.
+     * @return 1 si se rotó, 0 si el token no es el vigente
+     */
+    @Modifying
+    @Query("""
+        UPDATE RefreshToken t
+        SET t.previousTokenHash = t.tokenHash, t.tokenHash = :newHash, t.expirationDate = :expirationDate
+        WHERE t.tokenHash = :oldHash AND t.user.id = :userId AND t.expirationDate > :now
+        """)
+    int rotate(@Param("userId") Long userId, @Param("oldHash") String oldHash, @Param("newHash") String newHash,
+        @Param("expirationDate") LocalDateTime expirationDate, @Param("now") LocalDateTime now);
+
+    /**
+     * Revoca la sesión cuyo token anterior es el indicado (reutilización de un token ya rotado).
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.previousTokenHash = :hash AND t.user.id = :userId")
+    int deleteByPreviousTokenHash(@Param("hash") String hash, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.tokenHash = :hash AND t.user.id = :userId")
+    int deleteByTokenHash(@Param("hash") String hash, @Param("userId") Long userId);
+
+    /**
+     * Elimina un lote de tokens expirados. Se usa en lotes acotados para no mantener bloqueos largos
+     * ni generar picos de WAL al purgar muchas filas.
+     * @return número de filas eliminadas, menor al lote cuando ya no quedan tokens expirados
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM refresh_token WHERE id IN (
+            SELECT id FROM refresh_token WHERE expiration_date < :now LIMIT :batchSize)
+        """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    /**
+     * Conserva solo las sesiones más recientes del usuario (y elimina sus tokens expirados).
+     * @return número de sesiones eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM refresh_token WHERE user_id = :userId AND (expiration_date < :now OR id NOT IN (
+            SELECT id FROM refresh_token WHERE user_id = :userId ORDER BY id DESC LIMIT :maxSessions))
+        """, nativeQuery = true)
+    int trimSessions(@Param("userId") Long userId, @Param("maxSessions") int maxSessions, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,33 @@
+package rest.pkbe.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import rest.pkbe.domain.model.RevokedAccessToken;
+
+@Repository
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String>{
+
+    List<RevokedAccessToken> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Inserta el jti revocado sin consultarlo antes (el id lo asignamos nosotros, save haría un SELECT).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO revoked_access_token (jti, expires_at) VALUES (:jti, :expiresAt) ON CONFLICT (jti) DO NOTHING",
+        nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedAccessToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,8 +1,12 @@
 package rest.pkbe.domain.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import rest.pkbe.domain.model.Tag;
 import rest.pkbe.domain.model.User;
@@ -11,6 +15,16 @@ public interface TagRepository extends JpaRepository<Tag, Long>{
 
     Optional<Tag> findByNameAndUser(String name, User user);
 
+    List<Tag> findByUserAndNameIn(User user, Collection<String> names);
+
     boolean existsByName(String name);
+
+    /**
+     * Inserta en una sola sentencia las tags que faltan para un usuario.
+     * Si otra transacción ya creó alguna, uq_user_tag evita el duplicado y esa fila no se regresa.
+     */
+    @Query(value = "INSERT INTO tags (user_id, name) SELECT :userId, unnest(CAST(:names AS varchar[])) "
+        + "ON CONFLICT (user_id, name) DO NOTHING RETURNING id, user_id, name", nativeQuery = true)
+    List<Tag> insertMissing(@Param("userId") Long userId, @Param("names") String[] names);
     
 }
@@ -3,6 +3,9 @@ package rest.pkbe.domain.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import rest.pkbe.domain.model.User;
@@ -13,4 +16,18 @@ public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Versión de las notas del usuario (users.notes_version), usada como ETag de los listados de notas.
+     * No se mapea en la entidad User para que el usuario autenticado no cargue un valor desactualizado.
+     */
+    @Query(value = "SELECT notes_version FROM users WHERE id = :userId", nativeQuery = true)
+    Long findNotesVersion(@Param("userId") Long userId);
+
+    /**
+     * Se invoca dentro de la transacción de cada operación que crea, modifica o elimina notas del usuario.
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET notes_version = notes_version + 1 WHERE id = :userId", nativeQuery = true)
+    int incrementNotesVersion(@Param("userId") Long userId);
 }
@@ -0,0 +1,25 @@
+package rest.pkbe.domain.search;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de búsqueda producido por el índice en memoria.
+ * El índice no guarda el contenido de las notas, por lo que no incluye fragmento (snippet).
+ */
+@Getter
+@AllArgsConstructor
+public class IndexedNoteHit implements NoteSearchHit {
+
+    private final Long id;
+    private final String title;
+    private final Instant createdAt;
+    private final Float rank;
+
+    @Override
+    public String getSnippet() {
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package rest.pkbe.domain.search;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -> int de direccionamiento abierto, sin objetos por entrada.
+ * Lo usa el índice en memoria para ubicar el ordinal de una nota a partir de su id.
+ */
+final class LongIntHashMap {
+
+    private static final int MISSING = -1;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // Marca de entrada eliminada, distinta de EMPTY para no cortar las secuencias de sondeo
+    private static final long REMOVED = Long.MIN_VALUE + 1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int tombstones;
+
+    LongIntHashMap() {
+        allocate(16);
+    }
+
+    int get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if ((size + tombstones + 1) * 4 > keys.length * 3) {
+            rehash(size * 4 > keys.length ? keys.length * 2 : keys.length);
+        }
+        int slot = slot(key);
+        int firstRemoved = -1;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            if (keys[slot] == REMOVED && firstRemoved < 0) {
+                firstRemoved = slot;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        if (firstRemoved >= 0) {
+            slot = firstRemoved;
+            tombstones--;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    int remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                keys[slot] = REMOVED;
+                size--;
+                tombstones++;
+                return values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return MISSING;
+    }
+
+    void clear() {
+        allocate(16);
+    }
+
+    long estimatedBytes() {
+        return 32 + (long) keys.length * 12;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && oldKeys[i] != REMOVED) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        tombstones = 0;
+    }
+
+    static boolean isMissing(int value) {
+        return value == MISSING;
+    }
+}
@@ -0,0 +1,21 @@
+package rest.pkbe.domain.search;
+
+import java.time.Instant;
+
+/**
+ * Proyección de un resultado de búsqueda de notas.
+ * Solo contiene lo necesario para listar el resultado, el contenido completo no se carga,
+ * en su lugar se regresa un fragmento con los términos encontrados resaltados.
+ */
+public interface NoteSearchHit {
+
+    Long getId();
+
+    String getTitle();
+
+    Instant getCreatedAt();
+
+    Float getRank();
+
+    String getSnippet();
+}
@@ -0,0 +1,198 @@
+package rest.pkbe.domain.search;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.repository.NoteRepository;
+
+/**
+ * Administra los índices de búsqueda en memoria ({@link UserNoteIndex}) de cada usuario.
+ *
+ * - El índice de un usuario se construye la primera vez que busca (notes.search.engine=memory)
+ * - Las altas, cambios y bajas de notas se aplican al índice de forma incremental una vez que la
+ *   transacción se confirma, si el usuario no tiene índice cargado se ignoran
+ * - Los índices se guardan en un LRU: si la memoria estimada supera notes.search.memory.max-bytes
+ *   se descartan los índices de los usuarios que llevan más tiempo sin usarse
+ */
+@Component
+public class NoteSearchIndex {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Presupuesto de memoria para todos los índices cargados (64 MB por defecto)
+    @Value("${notes.search.memory.max-bytes:67108864}")
+    private long maxBytes;
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteSearchIndex.class);
+
+    // Orden de acceso: el primer elemento es el usuario que lleva más tiempo sin usar su índice
+    private final LinkedHashMap<Long, UserNoteIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    // Construcciones en curso, una por usuario aunque lleguen varias búsquedas al mismo tiempo
+    private final Map<Long, CompletableFuture<UserNoteIndex>> building = new ConcurrentHashMap<>();
+    // Usuarios con cambios mientras se construía su índice, ese índice no se guarda
+    private final Set<Long> stale = new HashSet<>();
+
+    /**
+     * Busca en el índice del usuario, construyéndolo si aún no está cargado.
+     */
+    public List<NoteSearchHit> search(Long userId, String query, int offset, int limit) {
+        return getOrBuild(userId).search(query, offset, limit);
+    }
+
+    /**
+     * Agrega o reemplaza una nota en el índice del usuario al confirmarse la transacción.
+     */
+    public void indexNote(Long userId, Note note) {
+        long noteId = note.getId();
+        String title = note.getTitle();
+        String content = note.getContent();
+        LocalDateTime createdAt = note.getCreatedAt() == null ? LocalDateTime.now() : note.getCreatedAt();
+        afterCommit(() -> apply(userId, index ->
+            index.add(noteId, title, content, createdAt.atZone(ZoneId.systemDefault()).toInstant())));
+    }
+
+    /**
+     * Elimina una nota del índice del usuario al confirmarse la transacción.
+     */
+    public void removeNote(Long userId, Long noteId) {
+        afterCommit(() -> apply(userId, index -> index.remove(noteId)));
+    }
+
+    /**
+     * Descarta el índice de un usuario, se volverá a construir en su siguiente búsqueda.
+     * Se usa cuando sus notas cambian por fuera de NoteServiceImpl.
+     */
+    public void evict(Long userId) {
+        synchronized (this) {
+            indexes.remove(userId);
+            if (building.containsKey(userId)) {
+                stale.add(userId);
+            }
+        }
+    }
+
+    /**
+     * @return memoria estimada de todos los índices cargados en bytes
+     */
+    public synchronized long estimatedBytes() {
+        return indexes.values().stream().mapToLong(UserNoteIndex::estimatedBytes).sum();
+    }
+
+    private UserNoteIndex getOrBuild(Long userId) {
+        synchronized (this) {
+            UserNoteIndex index = indexes.get(userId);
+            if (index != null) {
+                return index;
+            }
+        }
+        CompletableFuture<UserNoteIndex> future = new CompletableFuture<>();
+        CompletableFuture<UserNoteIndex> running = building.putIfAbsent(userId, future);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            UserNoteIndex index = build(userId);
+            synchronized (this) {
+                if (!stale.remove(userId)) {
+                    indexes.put(userId, index);
+                    enforceBudget(userId);
+                }
+            }
+            future.complete(index);
+            return index;
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            building.remove(userId);
+        }
+    }
+
+    private UserNoteIndex build(Long userId) {
+        long start = System.nanoTime();
+        UserNoteIndex index = new UserNoteIndex();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<NoteTextView> notes = noteRepository.streamTextByUserId(userId)) {
+                notes.forEach(note -> index.add(note.getId(), note.getTitle(), note.getContent(),
+                    note.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+            }
+        });
+        logger.debug("Índice de búsqueda construido: {} notas, ~{} KB en {} ms", index.size(),
+            index.estimatedBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    private void apply(Long userId, Consumer<UserNoteIndex> change) {
+        UserNoteIndex index;
+        synchronized (this) {
+            if (building.containsKey(userId)) {
+                stale.add(userId);
+            }
+            index = indexes.get(userId);
+        }
+        if (index != null) {
+            change.accept(index);
+            synchronized (this) {
+                enforceBudget(userId);
+            }
+        }
+    }
+
+    /**
+     * Descarta los índices menos usados hasta volver al presupuesto de memoria.
+     * El índice del usuario actual se conserva aunque por sí solo supere el presupuesto.
+     */
+    private void enforceBudget(Long currentUserId) {
+        long total = 0;
+        for (UserNoteIndex index : indexes.values()) {
+            total += index.estimatedBytes();
+        }
+        Iterator<Map.Entry<Long, UserNoteIndex>> it = indexes.entrySet().iterator();
+        while (total > maxBytes && it.hasNext()) {
+            Map.Entry<Long, UserNoteIndex> eldest = it.next();
+            if (eldest.getKey().equals(currentUserId)) {
+                continue;
+            }
+            total -= eldest.getValue().estimatedBytes();
+            it.remove();
+            logger.debug("Índice de búsqueda del usuario {} descartado por presupuesto de memoria", eldest.getKey());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
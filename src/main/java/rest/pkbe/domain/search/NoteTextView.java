@@ -0,0 +1,18 @@
+package rest.pkbe.domain.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con el texto de una nota, usada para construir el índice de búsqueda en memoria
+ * sin cargar entidades ni sus tags.
+ */
+public interface NoteTextView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+    LocalDateTime getCreatedAt();
+}
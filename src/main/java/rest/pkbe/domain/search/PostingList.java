@@ -0,0 +1,49 @@
+package rest.pkbe.domain.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de apariciones (posting list) de un término del índice en memoria.
+ * Guarda en arreglos primitivos el ordinal de cada nota que contiene el término y su frecuencia ponderada.
+ * Los ordinales se asignan de forma creciente, por lo que la lista siempre está ordenada y
+ * permite intersecciones con búsqueda binaria.
+ */
+final class PostingList {
+
+    // Costo aproximado en bytes de la lista vacía: objeto, dos arreglos y su entrada en el diccionario
+    static final int BASE_BYTES = 24 + 2 * 16 + 48;
+
+    int[] docs = new int[2];
+    int[] freqs = new int[2];
+    int size;
+
+    /**
+     * Agrega una aparición del término al final de la lista.
+     * @return bytes adicionales que ocupa la lista si tuvo que crecer
+     */
+    long add(int doc, int freq) {
+        long grown = 0;
+        if (size == docs.length) {
+            int capacity = docs.length + (docs.length >> 1) + 1;
+            grown = (long) (capacity - docs.length) * 8;
+            docs = Arrays.copyOf(docs, capacity);
+            freqs = Arrays.copyOf(freqs, capacity);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+        return grown;
+    }
+
+    /**
+     * Busca un ordinal a partir de una posición dada.
+     * @return posición del ordinal o un valor negativo si no está en la lista
+     */
+    int find(int doc, int from) {
+        return Arrays.binarySearch(docs, from, size, doc);
+    }
+
+    long estimatedBytes() {
+        return BASE_BYTES + (long) docs.length * 8;
+    }
+}
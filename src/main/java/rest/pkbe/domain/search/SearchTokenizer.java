@@ -0,0 +1,49 @@
+package rest.pkbe.domain.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Separa un texto en términos para el índice de búsqueda en memoria.
+ * Los términos se normalizan a minúsculas y sin acentos, así "Canción" y "cancion" coinciden.
+ * No aplica stemming, la búsqueda es por palabra completa.
+ */
+public final class SearchTokenizer {
+
+    // Términos más largos no aportan a la búsqueda y solo ocupan memoria
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private SearchTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                addTerm(terms, term);
+            }
+        }
+        if (term.length() > 0) {
+            addTerm(terms, term);
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, StringBuilder term) {
+        if (term.length() <= MAX_TERM_LENGTH) {
+            terms.add(term.toString());
+        }
+        term.setLength(0);
+    }
+}
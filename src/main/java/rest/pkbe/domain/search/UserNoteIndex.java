@@ -0,0 +1,310 @@
+package rest.pkbe.domain.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria con las notas de un usuario.
+ *
+ * Cada nota recibe un ordinal creciente. Por cada término se guarda una {@link PostingList} con los
+ * ordinales de las notas que lo contienen y su frecuencia (las apariciones en el título pesan el doble).
+ * Actualizar una nota la marca como eliminada y la agrega con un ordinal nuevo; cuando las notas
+ * eliminadas superan la mitad del índice, se compacta reasignando los ordinales.
+ *
+ * La búsqueda exige que la nota contenga todos los términos y ordena por la suma de frecuencias.
+ * Mantiene una estimación de los bytes que ocupa para que {@link NoteSearchIndex} respete su presupuesto.
+ */
+public class UserNoteIndex {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+    // Costo aproximado de un String: cabecera, arreglo y un byte por caracter (compact strings)
+    private static final int STRING_BYTES = 56;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final LongIntHashMap ordinals = new LongIntHashMap();
+    private final BitSet deleted = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] noteIds = new long[16];
+    private String[] titles = new String[16];
+    private long[] createdAt = new long[16];
+    private int docCount;
+    private int deletedCount;
+    private long postingBytes;
+    private long titleBytes;
+
+    /**
+     * Agrega una nota al índice, si ya existía se reemplaza.
+     */
+    public void add(long noteId, String title, String content, Instant created) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(noteId);
+            int doc = docCount++;
+            ensureCapacity(docCount);
+            noteIds[doc] = noteId;
+            titles[doc] = title;
+            createdAt[doc] = created == null ? 0 : created.toEpochMilli();
+            titleBytes += stringBytes(title);
+            ordinals.put(noteId, doc);
+
+            Map<String, int[]> frequencies = new HashMap<>();
+            for (String term : SearchTokenizer.tokenize(title)) {
+                frequencies.computeIfAbsent(term, t -> new int[1])[0] += TITLE_WEIGHT;
+            }
+            for (String term : SearchTokenizer.tokenize(content)) {
+                frequencies.computeIfAbsent(term, t -> new int[1])[0]++;
+            }
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                PostingList list = postings.get(entry.getKey());
+                if (list == null) {
+                    list = new PostingList();
+                    postings.put(entry.getKey(), list);
+                    postingBytes += list.estimatedBytes() + stringBytes(entry.getKey());
+                }
+                postingBytes += list.add(doc, entry.getValue()[0]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina una nota del índice.
+     * @return true si la nota estaba indexada
+     */
+    public boolean remove(long noteId) {
+        lock.writeLock().lock();
+        try {
+            return removeInternal(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las notas que contienen todos los términos de la consulta.
+     * @param query texto de búsqueda
+     * @param offset número de resultados a omitir
+     * @param limit número máximo de resultados a regresar
+     * @return resultados ordenados por relevancia y después por las notas indexadas más recientemente
+     */
+    public List<NoteSearchHit> search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists[i++] = list;
+            }
+            // Recorremos la lista más corta y buscamos cada ordinal en las demás
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            PostingList smallest = lists[0];
+            int[] cursors = new int[lists.length];
+            // Solo se conservan los mejores offset + limit resultados en un heap mínimo de longs
+            int k = (int) Math.min((long) Math.max(offset, 0) + limit, Integer.MAX_VALUE);
+            long[] heap = new long[Math.min(k, Math.max(smallest.size, 1))];
+            int heapSize = 0;
+
+            candidates:
+            for (int p = 0; p < smallest.size; p++) {
+                int doc = smallest.docs[p];
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                long score = smallest.freqs[p];
+                for (int l = 1; l < lists.length; l++) {
+                    int found = lists[l].find(doc, cursors[l]);
+                    if (found < 0) {
+                        cursors[l] = -found - 1;
+                        if (cursors[l] >= lists[l].size) {
+                            break candidates;
+                        }
+                        continue candidates;
+                    }
+                    cursors[l] = found + 1;
+                    score += lists[l].freqs[found];
+                }
+                // Empaquetamos puntuación y ordinal en un long para ordenar sin objetos
+                long packed = (Math.min(score, Integer.MAX_VALUE) << 32) | doc;
+                if (heapSize < heap.length) {
+                    heap[heapSize] = packed;
+                    siftUp(heap, heapSize++);
+                } else if (packed > heap[0]) {
+                    heap[0] = packed;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            Arrays.sort(heap, 0, heapSize);
+            List<NoteSearchHit> hits = new ArrayList<>(Math.min(limit, Math.max(heapSize - offset, 0)));
+            for (int m = heapSize - 1 - Math.max(offset, 0); m >= 0 && hits.size() < limit; m--) {
+                int doc = (int) heap[m];
+                hits.add(new IndexedNoteHit(noteIds[doc], titles[doc], Instant.ofEpochMilli(createdAt[doc]),
+                    (float) (heap[m] >>> 32)));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return número de notas vigentes en el índice
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimación de la memoria que ocupa el índice: diccionario de términos, posting lists,
+     * arreglos por nota, títulos y el mapa de ids.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return postingBytes + titleBytes + (long) noteIds.length * (8 + 8 + 8)
+                + ordinals.estimatedBytes() + deleted.size() / 8;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean removeInternal(long noteId) {
+        int doc = ordinals.remove(noteId);
+        if (LongIntHashMap.isMissing(doc)) {
+            return false;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        titleBytes -= stringBytes(titles[doc]);
+        titles[doc] = null;
+        if (deletedCount >= MIN_DELETED_TO_COMPACT && deletedCount * 2 > docCount) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Descarta las notas eliminadas reasignando ordinales consecutivos a las vigentes.
+     * Como se conserva el orden relativo, las posting lists siguen ordenadas.
+     */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = live;
+                noteIds[live] = noteIds[doc];
+                titles[live] = titles[doc];
+                createdAt[live] = createdAt[doc];
+                live++;
+            }
+        }
+        Arrays.fill(titles, live, docCount, null);
+
+        postingBytes = 0;
+        Iterator<Map.Entry<String, PostingList>> it = postings.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, PostingList> entry = it.next();
+            PostingList list = entry.getValue();
+            int size = 0;
+            for (int p = 0; p < list.size; p++) {
+                int target = remap[list.docs[p]];
+                if (target >= 0) {
+                    list.docs[size] = target;
+                    list.freqs[size] = list.freqs[p];
+                    size++;
+                }
+            }
+            list.size = size;
+            if (size == 0) {
+                it.remove();
+            } else {
+                postingBytes += list.estimatedBytes() + stringBytes(entry.getKey());
+            }
+        }
+
+        ordinals.clear();
+        for (int doc = 0; doc < live; doc++) {
+            ordinals.put(noteIds[doc], doc);
+        }
+        deleted.clear();
+        deletedCount = 0;
+        docCount = live;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            long tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            long tmp = heap[smallest];
+            heap[smallest] = heap[i];
+            heap[i] = tmp;
+            i = smallest;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > noteIds.length) {
+            int grown = Math.max(capacity, noteIds.length + (noteIds.length >> 1));
+            noteIds = Arrays.copyOf(noteIds, grown);
+            titles = Arrays.copyOf(titles, grown);
+            createdAt = Arrays.copyOf(createdAt, grown);
+        }
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_BYTES + value.length();
+    }
+}
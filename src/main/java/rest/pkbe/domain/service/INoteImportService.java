@@ -0,0 +1,14 @@
+package rest.pkbe.domain.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+import rest.pkbe.domain.importer.NoteImportFormat;
+import rest.pkbe.domain.importer.NoteImportJob;
+
+public interface INoteImportService {
+    NoteImportJob startImport(Long userId, NoteImportFormat format, InputStream body) throws IOException;
+
+    NoteImportJob getJob(Long userId, UUID jobId);
+}
@@ -1,17 +1,48 @@
 package rest.pkbe.domain.service;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import rest.pkbe.api.dto.request.note.CreateNoteRequest;
+import rest.pkbe.domain.bulk.BulkItemResult;
+import rest.pkbe.domain.export.NoteExportSink;
+import rest.pkbe.domain.listing.NoteRows;
+import rest.pkbe.domain.listing.NoteRowsPage;
 import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.pagination.CursorPage;
+import rest.pkbe.domain.search.NoteSearchHit;
+import rest.pkbe.domain.summary.NoteSummary;
 
 public interface INoteService {
     Note createNote(Long userId, Note note, Set<String> tagNames);
 
+    List<BulkItemResult> createNotes(Long userId, List<CreateNoteRequest> requests);
+
     List<Note> getAllNotes(Long userId);
 
+    CursorPage<Note> getNotesPage(Long userId, String cursor, int size, Sort.Direction direction);
+
+    CursorPage<NoteSummary> getNoteSummariesPage(Long userId, String cursor, int size, Sort.Direction direction);
+
+    NoteRows getAllNoteRows(Long userId);
+
+    NoteRowsPage getNoteRowsPage(Long userId, String cursor, int size, Sort.Direction direction);
+
+    void exportNotes(Long userId, NoteExportSink sink) throws IOException;
+
     Note getNoteById(Long noteId, Long userId);
 
+    LocalDateTime getNoteLastModified(Long noteId, Long userId);
+
+    long getNotesVersion(Long userId);
+
+    Slice<NoteSearchHit> searchNotes(Long userId, String query, int page, int size);
+
     void deleteNoteById(Long noteId, Long userId);
 
     void updateNoteById(Long noteId, Long userId, String title, String content, Set<String> tagNames);
@@ -1,5 +1,8 @@
 package rest.pkbe.domain.service;
 
+import java.util.Map;
+import java.util.Set;
+
 import rest.pkbe.domain.model.Tag;
 import rest.pkbe.domain.model.User;
 
@@ -7,4 +10,6 @@ public interface ITagService {
 
     Tag getOrCreate(String name, User user);
 
+    Map<String, Tag> getOrCreateAll(Set<String> names, User user);
+
 }
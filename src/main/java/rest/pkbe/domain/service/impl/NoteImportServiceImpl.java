@@ -0,0 +1,334 @@
+package rest.pkbe.domain.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.NonNull;
+import rest.pkbe.api.dto.request.note.CreateNoteRequest;
+import rest.pkbe.domain.importer.CopyCsvWriter;
+import rest.pkbe.domain.importer.NoteImportFormat;
+import rest.pkbe.domain.importer.NoteImportJob;
+import rest.pkbe.domain.importer.NoteImportReader;
+import rest.pkbe.domain.importer.NoteImportRecord;
+import rest.pkbe.domain.search.NoteSearchIndex;
+import rest.pkbe.domain.service.INoteImportService;
+import rest.pkbe.domain.summary.NoteExcerpt;
+import rest.pkbe.exception.exceptions.ResourceNotFoundException;
+
+@Service
+public class NoteImportServiceImpl implements INoteImportService {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+
+    // Notas que se cargan por COPY y se confirman en cada transacción
+    @Value("${notes.import.batch-size:5000}")
+    private int batchSize;
+
+    // Tamaño máximo del archivo recibido
+    @Value("${notes.import.max-bytes:1073741824}")
+    private long maxBytes;
+
+    // Importaciones que se ejecutan al mismo tiempo, las demás esperan en cola
+    @Value("${notes.import.threads:2}")
+    private int threads;
+
+    // Tiempo que se conserva el estado de una importación terminada para consultar su resultado
+    @Value("${notes.import.retention:1h}")
+    private Duration retention;
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteImportServiceImpl.class);
+
+    // Igual que allocationSize de Note: cada valor de notes_id_seq reserva un bloque de 50 ids
+    private static final int NOTE_ID_BLOCK = 50;
+
+    private static final String CREATE_NOTES_STAGE = "CREATE TEMP TABLE IF NOT EXISTS import_notes_stage ("
+        + "seq INT NOT NULL, id BIGINT, title VARCHAR(150) NOT NULL, content TEXT NOT NULL, "
+        + "excerpt VARCHAR(200) NOT NULL, created_at TIMESTAMP) ON COMMIT DELETE ROWS";
+    private static final String CREATE_TAGS_STAGE = "CREATE TEMP TABLE IF NOT EXISTS import_tags_stage ("
+        + "seq INT NOT NULL, name VARCHAR(50) NOT NULL) ON COMMIT DELETE ROWS";
+    private static final String COPY_NOTES = "COPY import_notes_stage (seq, title, content, excerpt, created_at) "
+        + "FROM STDIN WITH (FORMAT csv)";
+    private static final String COPY_TAGS = "COPY import_tags_stage (seq, name) FROM STDIN WITH (FORMAT csv)";
+    /**
+     * Se reservan bloques de la secuencia igual que lo hace Hibernate (el valor obtenido es el último id del bloque),
+     * así los ids de las notas se conocen antes de insertarlas y se pueden ligar con sus tags.
+     */
+    private static final String ASSIGN_NOTE_IDS = "WITH blocks AS MATERIALIZED ("
+        + "  SELECT g - 1 AS block, nextval('notes_id_seq') AS hi FROM generate_series(1, ?) AS g) "
+        + "UPDATE import_notes_stage s SET id = b.hi - " + (NOTE_ID_BLOCK - 1) + " + s.seq % " + NOTE_ID_BLOCK + " "
+        + "FROM blocks b WHERE b.block = s.seq / " + NOTE_ID_BLOCK;
+    private static final String MERGE_NOTES = "INSERT INTO notes (id, user_id, title, content, excerpt, created_at, updated_at) "
+        + "SELECT id, ?, title, content, excerpt, coalesce(created_at, now()), now() FROM import_notes_stage";
+    private static final String MERGE_TAGS = "INSERT INTO tags (user_id, name) "
+        + "SELECT DISTINCT ?, name FROM import_tags_stage "
+        + "ON CONFLICT ON CONSTRAINT uq_user_tag DO NOTHING";
+    private static final String MERGE_NOTE_TAGS = "INSERT INTO note_tags (note_id, tag_id) "
+        + "SELECT s.id, t.id FROM import_tags_stage st "
+        + "JOIN import_notes_stage s ON s.seq = st.seq "
+        + "JOIN tags t ON t.user_id = ? AND t.name = st.name "
+        + "ON CONFLICT DO NOTHING";
+    private static final String INCREMENT_NOTES_VERSION = "UPDATE users SET notes_version = notes_version + 1 WHERE id = ?";
+
+    private final Map<UUID, NoteImportJob> jobs = new ConcurrentHashMap<>();
+    // Usuarios con una importación en curso, desde que se empieza a recibir el archivo hasta que la importación termina
+    private final Set<Long> activeUsers = ConcurrentHashMap.newKeySet();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "note-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public NoteImportJob startImport(@NonNull Long userId, NoteImportFormat format, InputStream body) throws IOException {
+        logger.info("Recibiendo archivo de importación...");
+        /**
+         * - Solo se permite una importación en curso por usuario: el lugar se reserva antes de recibir el archivo,
+         *   así dos peticiones simultáneas no pueden pasar ambas la comprobación
+         * - El archivo se copia a un archivo temporal (sin cargarlo en memoria) para procesarlo en segundo plano
+         * - Se registra la importación y se encola, el progreso se consulta con getJob
+         * - El lugar se libera si la importación no llega a encolarse o cuando termina
+         */
+        purgeFinishedJobs();
+        if(!activeUsers.add(userId)){
+            logger.error("Importación rechazada: El usuario ya tiene una importación en curso");
+            throw new IllegalArgumentException("Ya existe una importación en curso");
+        }
+
+        Path file = null;
+        try{
+            file = Files.createTempFile("pkbe-import-", ".tmp");
+            long size = copyLimited(body, file);
+            if(size == 0){
+                logger.error("Importación rechazada: El archivo está vacío");
+                throw new IllegalArgumentException("El archivo está vacío");
+            }
+
+            NoteImportJob job = new NoteImportJob(userId, format, size);
+            Path jobFile = file;
+            jobs.put(job.getId(), job);
+            try{
+                executor.execute(() -> run(job, jobFile));
+            }catch(RuntimeException ex){
+                jobs.remove(job.getId());
+                throw ex;
+            }
+            logger.info("Importación {} encolada [!]", job.getId());
+            return job;
+        }catch(IOException | RuntimeException ex){
+            activeUsers.remove(userId);
+            if(file != null){
+                Files.deleteIfExists(file);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public NoteImportJob getJob(@NonNull Long userId, UUID jobId){
+        NoteImportJob job = jobs.get(jobId);
+        if(job == null || !job.getUserId().equals(userId)){
+            logger.error("Consulta fallida: La importación no existe");
+            throw new ResourceNotFoundException("La importación no existe");
+        }
+        return job;
+    }
+
+    /**
+     * Procesa el archivo: lee notas una a una, valida cada una con las reglas de POST /notes
+     * y las carga por bloques de notes.import.batch-size. Los bloques ya confirmados se conservan
+     * aunque un bloque posterior falle.
+     */
+    private void run(NoteImportJob job, Path file){
+        logger.info("Importación {} iniciada", job.getId());
+        job.start();
+        try(NoteImportReader reader = NoteImportReader.open(job.getFormat(), job.track(Files.newInputStream(file)), objectMapper)){
+            List<NoteImportRecord> batch = new ArrayList<>(batchSize);
+            NoteImportRecord record;
+            while((record = reader.next()) != null){
+                job.getNotesRead().incrementAndGet();
+                String error = record.isValid() ? validate(record) : record.getError();
+                if(error != null){
+                    job.recordFailure(record.getSource(), error);
+                    continue;
+                }
+                batch.add(record);
+                if(batch.size() == batchSize){
+                    load(job, batch);
+                    batch.clear();
+                }
+            }
+            if(!batch.isEmpty()){
+                load(job, batch);
+            }
+            job.complete();
+            logger.info("Importación {} finalizada: {} notas importadas, {} fallidas [!]",
+                job.getId(), job.getImported().get(), job.getFailed().get());
+        }catch(Exception ex){
+            logger.error("Importación {} fallida: {}", job.getId(), ex.getMessage());
+            job.fail(ex instanceof IOException ? "No se pudo leer el archivo" : "No se pudieron guardar las notas");
+        }finally{
+            activeUsers.remove(job.getUserId());
+            try{
+                Files.deleteIfExists(file);
+            }catch(IOException ex){
+                logger.warn("No se pudo borrar el archivo temporal {}", file);
+            }
+        }
+    }
+
+    /**
+     * Carga un bloque en una sola transacción:
+     * - COPY de las notas y de sus tags a tablas temporales
+     * - Se asignan ids a las notas reservando bloques de la secuencia
+     * - INSERT ... SELECT de notas, tags (deduplicadas con uq_user_tag) y relaciones note_tags
+     * - Se incrementa la versión de notas del usuario para invalidar los ETag de sus listados
+     * - Confirmado el bloque, se descarta el índice de búsqueda en memoria del usuario: las notas se insertaron sin
+     *   pasar por el servicio de notas y la siguiente búsqueda lo reconstruye con ellas
+     */
+    private void load(NoteImportJob job, List<NoteImportRecord> batch) throws SQLException{
+        Long userId = job.getUserId();
+        try(Connection connection = dataSource.getConnection()){
+            connection.setAutoCommit(false);
+            try{
+                try(Statement statement = connection.createStatement()){
+                    statement.execute(CREATE_NOTES_STAGE);
+                    statement.execute(CREATE_TAGS_STAGE);
+                }
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                CopyCsvWriter notes = new CopyCsvWriter(copyManager.copyIn(COPY_NOTES));
+                for(int seq = 0; seq < batch.size(); seq++){
+                    NoteImportRecord record = batch.get(seq);
+                    notes.row(seq, record.getTitle(), record.getContent(), NoteExcerpt.of(record.getContent()), record.getCreatedAt());
+                }
+                notes.finish();
+                CopyCsvWriter tags = new CopyCsvWriter(copyManager.copyIn(COPY_TAGS));
+                for(int seq = 0; seq < batch.size(); seq++){
+                    for(String tag : batch.get(seq).getTags()){
+                        tags.row(seq, tag);
+                    }
+                }
+                tags.finish();
+
+                try(PreparedStatement assignIds = connection.prepareStatement(ASSIGN_NOTE_IDS)){
+                    assignIds.setInt(1, (batch.size() + NOTE_ID_BLOCK - 1) / NOTE_ID_BLOCK);
+                    assignIds.executeUpdate();
+                }
+                executeForUser(connection, MERGE_NOTES, userId);
+                executeForUser(connection, MERGE_TAGS, userId);
+                executeForUser(connection, MERGE_NOTE_TAGS, userId);
+                executeForUser(connection, INCREMENT_NOTES_VERSION, userId);
+                connection.commit();
+                noteSearchIndex.evict(userId);
+            }catch(SQLException | RuntimeException ex){
+                connection.rollback();
+                throw ex;
+            }finally{
+                connection.setAutoCommit(true);
+            }
+        }
+        job.getImported().addAndGet(batch.size());
+    }
+
+    private static void executeForUser(Connection connection, String sql, Long userId) throws SQLException{
+        try(PreparedStatement statement = connection.prepareStatement(sql)){
+            statement.setLong(1, userId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Valida una nota importada con las mismas reglas que POST /notes
+     * @return mensaje con los campos inválidos o null si la nota es válida
+     */
+    private String validate(NoteImportRecord record){
+        CreateNoteRequest req = new CreateNoteRequest(record.getTitle(), record.getContent(), record.getTags());
+        Set<ConstraintViolation<CreateNoteRequest>> violations = validator.validate(req);
+        if(violations.isEmpty()){
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Copia el cuerpo de la petición al archivo temporal sin superar notes.import.max-bytes
+     * @return número de bytes copiados
+     */
+    private long copyLimited(InputStream body, Path file) throws IOException{
+        byte[] buffer = new byte[65536];
+        long total = 0;
+        try(OutputStream out = Files.newOutputStream(file)){
+            int read;
+            while((read = body.read(buffer)) != -1){
+                total += read;
+                if(total > maxBytes){
+                    logger.error("Importación rechazada: El archivo supera el tamaño máximo");
+                    throw new IllegalArgumentException("El archivo no puede superar " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    private void purgeFinishedJobs(){
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+}
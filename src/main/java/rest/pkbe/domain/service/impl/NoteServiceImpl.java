@@ -1,6 +1,13 @@
 package rest.pkbe.domain.service.impl;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -10,16 +17,44 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.NonNull;
+import rest.pkbe.api.dto.request.note.CreateNoteRequest;
+import rest.pkbe.domain.bulk.BulkItemResult;
+import rest.pkbe.domain.export.NoteExport;
+import rest.pkbe.domain.export.NoteExportRow;
+import rest.pkbe.domain.export.NoteExportSink;
+import rest.pkbe.domain.listing.NoteRows;
+import rest.pkbe.domain.listing.NoteRowsPage;
 import rest.pkbe.domain.model.Note;
 import rest.pkbe.domain.model.NoteTag;
 import rest.pkbe.domain.model.Tag;
 import rest.pkbe.domain.model.User;
+import rest.pkbe.domain.pagination.CursorPage;
+import rest.pkbe.domain.pagination.NoteCursor;
+import rest.pkbe.domain.search.NoteSearchHit;
+import rest.pkbe.domain.search.NoteSearchIndex;
+import rest.pkbe.domain.summary.NoteSummary;
+import rest.pkbe.domain.summary.NoteSummaryRow;
 import rest.pkbe.domain.repository.NoteRepository;
+import rest.pkbe.domain.repository.NoteRowRepository;
 import rest.pkbe.domain.repository.NoteTagRepository;
 import rest.pkbe.domain.repository.UserRepository;
 import rest.pkbe.domain.service.INoteService;
@@ -32,6 +67,9 @@ public class NoteServiceImpl implements INoteService{
     @Autowired
     private NoteRepository noteRepository;
 
+    @Autowired
+    private NoteRowRepository noteRowRepository;
+
     @Autowired
     private UserRepository userRepository;
     
@@ -41,19 +79,58 @@ public class NoteServiceImpl implements INoteService{
     @Autowired
     private ITagService tagService; // Corrección: Inyectamos la interfaz, no la implementación
 
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Transacciones de solo lectura para recorrer filas mientras se escribe la respuesta
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    // Número de notas que se guardan por transacción y por lote JDBC en la creación masiva
+    @Value("${notes.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    // Número máximo de notas aceptadas en una sola petición de creación masiva
+    @Value("${notes.bulk.max-items:10000}")
+    private int bulkMaxItems;
+
+    // Número de notas que se leen por consulta (y por transacción) al exportar
+    @Value("${notes.export.chunk-size:500}")
+    private int exportChunkSize;
+
+    // Motor de búsqueda: postgres (texto completo en la base de datos) o memory (índice invertido en memoria)
+    @Value("${notes.search.engine:postgres}")
+    private String searchEngine;
+
     private static final Logger logger = LoggerFactory.getLogger(NoteServiceImpl.class);
 
+    // Límite de notas por página para la paginación por keyset
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @PostConstruct
+    void initReadOnlyTransactions() {
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
 
     @Override
     @Transactional
     public Note createNote(@NonNull Long userId, Note note, Set<String> tagNames) {
-        logger.info("Registrando nota en la base de datos...");
+        logger.debug("Registrando nota en la base de datos...");
         /**
          * - En primer lugar se comprueba que el usuario no es null (porque usamos Long)
          * - Comprobamos que la nota tenga al menos un tag
          * - Comprobamos si el usuario existe
          * - Ligamos la nota al usuario y la guardamos
-         * - Recorremos los tags dados por el usuario y los adjuntamos a la nota a través de la relación NoteTag
+         * - Resolvemos todas las tags del usuario en bloque y las ligamos a la nota con una sola inserción en NoteTag
          * - Una vez que hayamos terminado de ligar los tags con la nota principal, la regresamos
          */
         User user = userRepository.findById(userId)
@@ -68,18 +145,124 @@ public class NoteServiceImpl implements INoteService{
         note.setUser(user);
         Note savedNote = noteRepository.save(note);
 
-        for(String tagName : tagNames){
-            Tag tag = tagService.getOrCreate(tagName, user);
-            NoteTag noteTag = new NoteTag(savedNote, tag);
-            noteTagRepository.save(noteTag);
-        }
-        logger.info("Nota registrada exitosamente [!]");
+        Map<String, Tag> tags = tagService.getOrCreateAll(tagNames, user);
+        noteTagRepository.insertAll(savedNote.getId(), tags.values().stream().map(Tag::getId).toArray(Long[]::new));
+        noteSearchIndex.indexNote(userId, savedNote);
+        userRepository.incrementNotesVersion(userId);
+        logger.debug("Nota registrada exitosamente [!]");
         return savedNote;
     }
 
+    @Override
+    public List<BulkItemResult> createNotes(@NonNull Long userId, List<CreateNoteRequest> requests) {
+        logger.debug("Registrando notas en lote...");
+        /**
+         * - Comprobamos que el usuario exista y que la petición no exceda el máximo permitido
+         * - Validamos cada nota por separado, las inválidas se reportan y no detienen a las demás
+         * - Las notas válidas se guardan por bloques, cada bloque en su propia transacción
+         * - Si un bloque falla, solo se reportan como fallidas las notas de ese bloque
+         */
+        userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    logger.error("Intento de registro en lote fallido: El usuario no existe");
+                    return new ResourceNotFoundException("El usuario no existe");
+                });
+        if(requests == null || requests.isEmpty()){
+            logger.error("Intento de registro en lote fallido: No se recibieron notas");
+            throw new IllegalArgumentException("Debe incluirse al menos una nota");
+        }
+        if(requests.size() > bulkMaxItems){
+            logger.error("Intento de registro en lote fallido: Demasiadas notas");
+            throw new IllegalArgumentException("No se pueden crear más de " + bulkMaxItems + " notas por petición");
+        }
+
+        List<BulkItemResult> results = new ArrayList<>(requests.size());
+        for(int start = 0; start < requests.size(); start += bulkChunkSize){
+            int end = Math.min(start + bulkChunkSize, requests.size());
+            List<Integer> validIndexes = new ArrayList<>(end - start);
+            for(int i = start; i < end; i++){
+                String error = validate(requests.get(i));
+                if(error == null){
+                    validIndexes.add(i);
+                }else{
+                    results.add(BulkItemResult.failed(i, error));
+                }
+            }
+            if(validIndexes.isEmpty()){
+                continue;
+            }
+            try{
+                List<Long> ids = transactionTemplate.execute(status -> persistChunk(userId, requests, validIndexes));
+                for(int i = 0; i < validIndexes.size(); i++){
+                    results.add(BulkItemResult.created(validIndexes.get(i), ids.get(i)));
+                }
+            }catch(DataAccessException | PersistenceException ex){
+                logger.error("Bloque de notas [{}, {}) no registrado: {}", start, end, ex.getMessage());
+                validIndexes.forEach(i -> results.add(BulkItemResult.failed(i, "No se pudo guardar la nota")));
+            }
+        }
+        results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        logger.debug("Notas registradas en lote [!]");
+        return results;
+    }
+
+    /**
+     * Guarda un bloque de notas dentro de la transacción actual.
+     * Las tags de todo el bloque se resuelven en bloque, después se insertan todas las notas y luego
+     * todas sus relaciones NoteTag, de modo que Hibernate pueda agrupar cada tipo de INSERT en lotes JDBC.
+     */
+    private List<Long> persistChunk(Long userId, List<CreateNoteRequest> requests, List<Integer> indexes){
+        entityManager.unwrap(Session.class).setJdbcBatchSize(bulkChunkSize);
+        User user = entityManager.getReference(User.class, userId);
+
+        Set<String> tagNames = new HashSet<>();
+        indexes.forEach(i -> tagNames.addAll(requests.get(i).getTags()));
+        Map<String, Tag> tags = tagService.getOrCreateAll(tagNames, user);
+
+        List<Note> notes = new ArrayList<>(indexes.size());
+        for(Integer i : indexes){
+            CreateNoteRequest req = requests.get(i);
+            Note note = new Note();
+            note.setTitle(req.getTitle());
+            note.setContent(req.getContent());
+            note.setUser(user);
+            entityManager.persist(note);
+            noteSearchIndex.indexNote(userId, note);
+            notes.add(note);
+        }
+        entityManager.flush();
+        for(int n = 0; n < notes.size(); n++){
+            for(String tagName : requests.get(indexes.get(n)).getTags()){
+                entityManager.persist(new NoteTag(notes.get(n), tags.get(tagName)));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        userRepository.incrementNotesVersion(userId);
+        return notes.stream().map(Note::getId).toList();
+    }
+
+    /**
+     * Valida una nota de la petición en lote con las mismas reglas que POST /notes
+     * @return mensaje con los campos inválidos o null si la nota es válida
+     */
+    private String validate(CreateNoteRequest req){
+        if(req == null){
+            return "La nota no puede ser nula";
+        }
+        Set<ConstraintViolation<CreateNoteRequest>> violations = validator.validate(req);
+        if(violations.isEmpty()){
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
     @Override
     public List<Note> getAllNotes(@NonNull Long userId){
-        logger.info("Obteniendo notas de usuario...");
+        logger.debug("Obteniendo notas de usuario...");
         /**
          * - Primero se comprueba que el id no sea nulo
          * - Comprobamos que el usuario existe
@@ -92,39 +275,243 @@ public class NoteServiceImpl implements INoteService{
                 });
 
         List<Note> noteList = noteRepository.findAllByUserIdWithTags(userId);
-        logger.info("Notas obtenidas exitosamente [!]");
+        logger.debug("Notas obtenidas exitosamente [!]");
         return noteList;
     }
 
+    @Override
+    public CursorPage<Note> getNotesPage(@NonNull Long userId, String cursor, int size, Sort.Direction direction){
+        logger.debug("Obteniendo página de notas de usuario...");
+        /**
+         * - Validamos el tamaño de página
+         * - Si se recibe un cursor, continuamos después de la última nota entregada (created_at, id)
+         * - Pedimos un id de más para saber si existe una página siguiente sin hacer un COUNT
+         * - Cargamos las notas de la página con sus tags y respetamos el orden de los ids
+         */
+        List<NoteCursor> keys = findPageKeys(userId, cursor, size, direction);
+        boolean hasNext = keys.size() > size;
+        List<Long> pageIds = pageIds(keys, size);
+        if(pageIds.isEmpty()){
+            logger.debug("Página de notas obtenida exitosamente [!]");
+            return new CursorPage<>(List.of(), null);
+        }
+
+        Map<Long, Integer> position = new HashMap<>();
+        for(int i = 0; i < pageIds.size(); i++){
+            position.put(pageIds.get(i), i);
+        }
+        List<Note> notes = noteRepository.findAllByIdInWithTags(pageIds)
+            .stream()
+            .sorted(Comparator.comparing(note -> position.get(note.getId())))
+            .toList();
+
+        String nextCursor = hasNext ? keys.get(size - 1).encode() : null;
+        logger.debug("Página de notas obtenida exitosamente [!]");
+        return new CursorPage<>(notes, nextCursor);
+    }
+
+    @Override
+    public CursorPage<NoteSummary> getNoteSummariesPage(@NonNull Long userId, String cursor, int size, Sort.Direction direction){
+        logger.debug("Obteniendo página resumida de notas de usuario...");
+        /**
+         * - Se pagina igual que getNotesPage (mismos ids y mismo cursor)
+         * - En lugar de entidades se leen filas planas con título, extracto, fecha y nombre de tag
+         * - Las filas se agrupan por nota respetando el orden de los ids
+         */
+        List<NoteCursor> keys = findPageKeys(userId, cursor, size, direction);
+        boolean hasNext = keys.size() > size;
+        List<Long> pageIds = pageIds(keys, size);
+        if(pageIds.isEmpty()){
+            logger.debug("Página resumida de notas obtenida exitosamente [!]");
+            return new CursorPage<>(List.of(), null);
+        }
+
+        Map<Long, NoteSummary> summaries = new LinkedHashMap<>();
+        pageIds.forEach(id -> summaries.put(id, null));
+        for(NoteSummaryRow row : noteRepository.findSummaryRowsByIdIn(pageIds)){
+            NoteSummary summary = summaries.get(row.getId());
+            if(summary == null){
+                summary = new NoteSummary(row.getId(), row.getTitle(), row.getExcerpt(), row.getCreatedAt(), new LinkedHashSet<>());
+                summaries.put(row.getId(), summary);
+            }
+            if(row.getTagName() != null){
+                summary.getTags().add(row.getTagName());
+            }
+        }
+        // Una nota borrada entre ambas consultas no tiene filas, se omite
+        List<NoteSummary> items = summaries.values().stream().filter(summary -> summary != null).toList();
+
+        String nextCursor = hasNext ? keys.get(size - 1).encode() : null;
+        logger.debug("Página resumida de notas obtenida exitosamente [!]");
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    @Override
+    public NoteRows getAllNoteRows(@NonNull Long userId){
+        logger.debug("Obteniendo filas de notas de usuario...");
+        /**
+         * - Comprobamos que el usuario existe antes de empezar a escribir la respuesta
+         * - Las filas se leen al recorrerlas, en una transacción de solo lectura para que el driver
+         *   las traiga por bloques y no todas a la vez
+         */
+        if(!userRepository.existsById(userId)){
+            logger.error("Obtención de notas fallida: El usuario no existe");
+            throw new ResourceNotFoundException("El usuario no existe");
+        }
+        logger.debug("Filas de notas listas para leerse [!]");
+        return handler -> readOnlyTransactionTemplate.executeWithoutResult(
+            status -> noteRowRepository.forEachRowOfUser(userId, handler));
+    }
+
+    @Override
+    public NoteRowsPage getNoteRowsPage(@NonNull Long userId, String cursor, int size, Sort.Direction direction){
+        logger.debug("Obteniendo página de filas de notas de usuario...");
+        /**
+         * - Se pagina igual que getNotesPage (mismos ids y mismo cursor)
+         * - Las filas de la página se leen al recorrerlas, sin entidades, en una transacción de solo lectura:
+         *   con open-in-view la consulta usa la conexión que ya tiene el EntityManager de la petición
+         *   en lugar de pedir una segunda conexión al pool mientras se serializa la respuesta
+         */
+        List<NoteCursor> keys = findPageKeys(userId, cursor, size, direction);
+        boolean hasNext = keys.size() > size;
+        List<Long> pageIds = pageIds(keys, size);
+        if(pageIds.isEmpty()){
+            logger.debug("Página de filas de notas obtenida exitosamente [!]");
+            return new NoteRowsPage(NoteRows.EMPTY, null);
+        }
+        String nextCursor = hasNext ? keys.get(size - 1).encode() : null;
+        logger.debug("Página de filas de notas obtenida exitosamente [!]");
+        return new NoteRowsPage(handler -> readOnlyTransactionTemplate.executeWithoutResult(
+            status -> noteRowRepository.forEachRow(pageIds, direction, handler)), nextCursor);
+    }
+
+    @Override
+    public void exportNotes(@NonNull Long userId, NoteExportSink sink) throws IOException{
+        logger.debug("Exportando notas de usuario...");
+        /**
+         * - Recorremos las notas por keyset (createdAt, id) en bloques de notes.export.chunk-size
+         * - Cada bloque se lee en su propia transacción de solo lectura, con proyecciones y no entidades,
+         *   así la memoria y el contexto de persistencia no crecen con el número de notas
+         * - El bloque se entrega al sink fuera de la transacción: sin open-in-view (valor por defecto) la conexión
+         *   vuelve al pool mientras se escribe al cliente, aunque este sea lento. Con open-in-view el EntityManager
+         *   de la petición conserva la conexión durante toda la exportación
+         */
+        NoteCursor after = null;
+        long exported = 0;
+        while(true){
+            NoteCursor from = after;
+            ExportChunk chunk = transactionTemplate.execute(status -> readExportChunk(userId, from));
+            if(chunk == null){
+                break;
+            }
+            // Si todas las notas del bloque se borraron entre ambas consultas no hay nada que escribir,
+            // pero la exportación continúa después de la última llave del bloque
+            if(!chunk.notes().isEmpty()){
+                sink.write(chunk.notes());
+                exported += chunk.notes().size();
+            }
+            after = chunk.last();
+        }
+        logger.debug("Notas exportadas exitosamente: {} [!]", exported);
+    }
+
+    /**
+     * Bloque de la exportación: sus notas y la llave de la última nota del bloque, desde donde sigue el siguiente
+     */
+    private record ExportChunk(List<NoteExport> notes, NoteCursor last) {}
+
+    /**
+     * Lee el siguiente bloque de la exportación después del cursor (o el primero si es null)
+     * y agrupa las filas de cada nota con sus tags respetando el orden de los ids.
+     * @return el bloque o null si ya no hay notas después del cursor
+     */
+    private ExportChunk readExportChunk(Long userId, NoteCursor after){
+        Limit limit = Limit.of(exportChunkSize);
+        List<NoteCursor> keys = after == null
+            ? noteRepository.findFirstPageKeysAsc(userId, limit)
+            : noteRepository.findPageKeysAscAfter(userId, after.getCreatedAt(), after.getId(), limit);
+        if(keys.isEmpty()){
+            return null;
+        }
+        List<Long> ids = keys.stream().map(NoteCursor::getId).toList();
+        Map<Long, NoteExport> notes = new LinkedHashMap<>();
+        ids.forEach(id -> notes.put(id, null));
+        for(NoteExportRow row : noteRepository.findExportRowsByIdIn(ids)){
+            NoteExport note = notes.get(row.getId());
+            if(note == null){
+                note = new NoteExport(row.getId(), row.getTitle(), row.getContent(), row.getCreatedAt(),
+                    row.getUpdatedAt(), new LinkedHashSet<>());
+                notes.put(row.getId(), note);
+            }
+            if(row.getTagName() != null){
+                note.getTags().add(row.getTagName());
+            }
+        }
+        // Una nota borrada entre ambas consultas no tiene filas, se omite
+        return new ExportChunk(notes.values().stream().filter(note -> note != null).toList(), keys.get(keys.size() - 1));
+    }
+
+    /**
+     * Recupera las llaves (createdAt, id) de una página por keyset usando el índice (user_id, created_at, id).
+     * Se pide una llave de más para saber si existe una página siguiente sin hacer un COUNT.
+     * El cursor de la siguiente página es la última llave de la página, exista o no todavía esa nota al cargarla.
+     */
+    private List<NoteCursor> findPageKeys(Long userId, String cursor, int size, Sort.Direction direction){
+        if(size < 1 || size > MAX_PAGE_SIZE){
+            logger.error("Obtención de notas fallida: Tamaño de página inválido");
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        boolean ascending = direction == Sort.Direction.ASC;
+        Limit limit = Limit.of(size + 1);
+        List<NoteCursor> keys;
+        if(cursor == null || cursor.isBlank()){
+            keys = ascending
+                ? noteRepository.findFirstPageKeysAsc(userId, limit)
+                : noteRepository.findFirstPageKeysDesc(userId, limit);
+        }else{
+            NoteCursor after = NoteCursor.decode(cursor);
+            keys = ascending
+                ? noteRepository.findPageKeysAscAfter(userId, after.getCreatedAt(), after.getId(), limit)
+                : noteRepository.findPageKeysDescAfter(userId, after.getCreatedAt(), after.getId(), limit);
+        }
+        return keys;
+    }
+
+    // Ids de la página sin la llave de más
+    private static List<Long> pageIds(List<NoteCursor> keys, int size){
+        return keys.stream().limit(size).map(NoteCursor::getId).toList();
+    }
+
     @Override
     @Transactional
     public void deleteNoteById(@NonNull Long noteId, @NonNull Long userId){
-        logger.info("Eliminando nota de la base de datos...");
+        logger.debug("Eliminando nota de la base de datos...");
         /**
-         * - Para borrar una nota corroboramos que la nota exista y le pertenezca al usuario
+         * - Borramos la nota solo si le pertenece al usuario, si no se borró ninguna fila no existe o no es suya
          * - Borramos la nota pero no sus tags
          */
-        if(!noteRepository.existsByIdAndUserId(noteId, userId)){
+        if(noteRepository.deleteByIdAndUserId(noteId, userId) == 0){
             logger.error("Eliminación fallida: La nota no existe");
             throw new ResourceNotFoundException("La nota no existe");
         }
-        logger.info("Nota eliminada exitosamente [!]");
-        noteRepository.deleteById(noteId);
+        logger.debug("Nota eliminada exitosamente [!]");
+        noteSearchIndex.removeNote(userId, noteId);
+        userRepository.incrementNotesVersion(userId);
     }
 
     @Override
     @Transactional
     public void updateNoteById(@NonNull Long noteId, @NonNull Long userId, String title, String content, Set<String> tagNames){
-        logger.info("Actualizando nota...");
+        logger.debug("Actualizando nota...");
         /**
          * Para editar una nota, recibimos el id de la nota, el id del usuario dueño, además, el contenido que va a ser editado
          * Primero corroboramos si los campos simples no son nulos, si no lo son, los actualizamos.
          * Si se quiere actualizar las tags de una nota, tenemos que trabajar con las relaciones de NoteTag
          * - Sacamos las tags actuales de la nota y asilamos sus nombres
-         * - en un ciclo for, iteramos la nueva lista de tags, así identificamos las tags que ya se encuentran en la nota y las que se agregarán o eliminaran
+         * - comparamos con la nueva lista de tags, así identificamos las tags que ya se encuentran en la nota y las que se agregarán o eliminaran
          * - guardamos la nueva nota con save, al ya tener un id, JPA identifica que es una actualización
          */
-        Optional<Note> optionalNote = noteRepository.findByIdAndUserId(noteId, userId);
+        Optional<Note> optionalNote = noteRepository.findByIdAndUserIdWithTags(userId, noteId);
         if(optionalNote.isPresent()){
             Note updatedNote = optionalNote.get();
             if(title != null){
@@ -135,41 +522,94 @@ public class NoteServiceImpl implements INoteService{
             }
             if(tagNames != null){
                 logger.warn("Actualizando relaciones de TAGS...");
-                Set<NoteTag> current = updatedNote.getNoteTags();
-                // Mapear tags actuales por nombre
-                Map<String, NoteTag> currentByName = current.stream().collect(Collectors.toMap(nt -> nt.getTag().getName(), Function.identity()));
-                Set<NoteTag> updated = new HashSet<>();
-                for(String tagName : tagNames){
-                    NoteTag existing = currentByName.get(tagName);
-                    if(existing != null){
-                        // Ya existía, lo conservamos
-                        updated.add(existing);
-                    }else{
-                        // Nuevo tag, creamos relación
-                        Tag tag = tagService.getOrCreate(tagName, updatedNote.getUser());
-                        updated.add(new NoteTag(updatedNote, tag));
-                    }
+                Set<String> added = diffTags(updatedNote.getNoteTags(), tagNames);
+                // Las relaciones NoteTag no marcan la nota como modificada, se actualiza updatedAt para que cambie su ETag.
+                // Antes de la inserción nativa: su flush ya incluye updatedAt y la nota se actualiza una sola vez
+                updatedNote.setUpdatedAt(LocalDateTime.now());
+                // Las tags nuevas se resuelven en bloque y se ligan con una sola inserción
+                if(!added.isEmpty()){
+                    Map<String, Tag> tags = tagService.getOrCreateAll(added, updatedNote.getUser());
+                    noteTagRepository.insertAll(updatedNote.getId(), tags.values().stream().map(Tag::getId).toArray(Long[]::new));
                 }
-                current.clear();
-                current.addAll(updated);
             }
-            logger.info("Actualización de una nota exitosa [!]");
+            logger.debug("Actualización de una nota exitosa [!]");
             noteRepository.save(updatedNote);
+            if(title != null || content != null){
+                noteSearchIndex.indexNote(userId, updatedNote);
+            }
+            userRepository.incrementNotesVersion(userId);
         }else{
             logger.error("Actualización fallida: La nota no existe");
             throw new ResourceNotFoundException("La nota no existe");
         }
     }
 
+    /**
+     * Compara las tags actuales de una nota con las solicitadas.
+     * Quita de current las relaciones que ya no vienen en la petición (se eliminan por orphanRemoval)
+     * y regresa los nombres de las tags que hay que agregar.
+     */
+    private static Set<String> diffTags(Set<NoteTag> current, Set<String> tagNames){
+        // Mapear tags actuales por nombre
+        Map<String, NoteTag> currentByName = current.stream().collect(Collectors.toMap(nt -> nt.getTag().getName(), Function.identity()));
+        current.removeIf(nt -> !tagNames.contains(nt.getTag().getName()));
+        Set<String> added = new HashSet<>(tagNames);
+        added.removeAll(currentByName.keySet());
+        return added;
+    }
+
     @Override
     public Note getNoteById(Long noteId, Long userId){
-        logger.info("Cargando nota...");
+        logger.debug("Cargando nota...");
         Note note = noteRepository.findByIdAndUserIdWithTags(userId, noteId).orElseThrow(() -> {
             logger.error("Carga fallida: La nota no existe");
-            return new ResourceNotFoundException("La note no existe");
+            return new ResourceNotFoundException("La nota no existe");
         });
-        logger.info("Carga exitosa [!]");
+        logger.debug("Carga exitosa [!]");
         return note;
     }
 
+    @Override
+    public LocalDateTime getNoteLastModified(@NonNull Long noteId, @NonNull Long userId){
+        return noteRepository.findLastModified(noteId, userId).orElseThrow(() -> {
+            logger.error("Carga fallida: La nota no existe");
+            return new ResourceNotFoundException("La nota no existe");
+        });
+    }
+
+    @Override
+    public long getNotesVersion(@NonNull Long userId){
+        Long version = userRepository.findNotesVersion(userId);
+        if(version == null){
+            logger.error("Obtención de notas fallida: El usuario no existe");
+            throw new ResourceNotFoundException("El usuario no existe");
+        }
+        return version;
+    }
+
+    @Override
+    public Slice<NoteSearchHit> searchNotes(@NonNull Long userId, String query, int page, int size){
+        logger.debug("Buscando notas...");
+        /**
+         * - Validamos la búsqueda y la paginación
+         * - Postgres ordena por relevancia (ts_rank) usando el índice GIN de search_vector, o bien
+         *   con notes.search.engine=memory se usa el índice invertido en memoria del usuario
+         * - Pedimos un resultado de más para saber si existe una página siguiente sin hacer un COUNT
+         */
+        if(query == null || query.isBlank()){
+            logger.error("Búsqueda fallida: La búsqueda está vacía");
+            throw new IllegalArgumentException("La búsqueda no puede estar vacía");
+        }
+        if(page < 0 || size < 1 || size > MAX_PAGE_SIZE){
+            logger.error("Búsqueda fallida: Paginación inválida");
+            throw new IllegalArgumentException("La página debe ser positiva y su tamaño estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        List<NoteSearchHit> hits = "memory".equalsIgnoreCase(searchEngine)
+            ? noteSearchIndex.search(userId, query, (int) Math.min((long) page * size, Integer.MAX_VALUE), size + 1)
+            : noteRepository.search(userId, query.trim(), size + 1, (long) page * size);
+        boolean hasNext = hits.size() > size;
+        logger.debug("Búsqueda exitosa [!]");
+        return new SliceImpl<>(hasNext ? hits.subList(0, size) : hits, PageRequest.of(page, size), hasNext);
+    }
+
 }
@@ -0,0 +1,77 @@
+package rest.pkbe.domain.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import rest.pkbe.domain.repository.RefreshTokenRepository;
+
+/**
+ * Purga periódica de los tokens de refresco expirados.
+ * Las filas se eliminan en lotes acotados, cada uno en su propia transacción, para no bloquear la tabla
+ * ni generar un pico de WAL. Lleva métricas simples de cada ejecución (filas eliminadas y duración).
+ */
+@Service
+public class RefreshTokenSweeper {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Número de tokens expirados que se eliminan por transacción
+    @Value("${jwt.refresh-token.purge.batch-size:5000}")
+    private int batchSize;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder purgedTotal = new LongAdder();
+    private final AtomicLong lastRunPurged = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenSweeper.class);
+
+    @Scheduled(initialDelayString = "${jwt.refresh-token.purge.interval:1h}", fixedDelayString = "${jwt.refresh-token.purge.interval:1h}")
+    public void purgeExpired() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+            purged += deleted;
+        } while (deleted == batchSize);
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        runs.increment();
+        purgedTotal.add(purged);
+        lastRunPurged.set(purged);
+        lastRunMillis.set(millis);
+        logger.info("Purga de tokens de refresco expirados: {} eliminados en {} ms", purged, millis);
+    }
+
+    /**
+     * Métricas de la purga: ejecuciones, filas eliminadas en total y en la última ejecución, y su duración.
+     */
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    public long getPurgedTotal() {
+        return purgedTotal.sum();
+    }
+
+    public long getLastRunPurged() {
+        return lastRunPurged.get();
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis.get();
+    }
+}
@@ -1,6 +1,11 @@
 package rest.pkbe.domain.service.impl;
 
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -30,5 +35,37 @@ public class TagServiceImpl implements ITagService{
                     return tagRepository.save(tag);
                 });
     }
+
+    @Override
+    @Transactional
+    public Map<String, Tag> getOrCreateAll(Set<String> names, User user) {
+        /**
+         * Resuelve un conjunto de tags por nombre con consultas por conjunto en lugar de una por tag:
+         * - Un SELECT ... WHERE name IN para las tags existentes
+         * - Un INSERT ... ON CONFLICT DO NOTHING RETURNING para las que faltan
+         * - Si otra petición creó alguna al mismo tiempo, el INSERT no la regresa y la volvemos a buscar
+         */
+        Map<String, Tag> tagsByName = new HashMap<>();
+        if(names == null || names.isEmpty()){
+            return tagsByName;
+        }
+        tagRepository.findByUserAndNameIn(user, names)
+            .forEach(tag -> tagsByName.put(tag.getName(), tag));
+
+        Set<String> missing = new HashSet<>(names);
+        missing.removeAll(tagsByName.keySet());
+        if(missing.isEmpty()){
+            return tagsByName;
+        }
+        tagRepository.insertMissing(user.getId(), missing.toArray(String[]::new))
+            .forEach(tag -> tagsByName.put(tag.getName(), tag));
+
+        missing.removeAll(tagsByName.keySet());
+        if(!missing.isEmpty()){
+            tagRepository.findByUserAndNameIn(user, missing)
+                .forEach(tag -> tagsByName.put(tag.getName(), tag));
+        }
+        return tagsByName;
+    }
     
 }
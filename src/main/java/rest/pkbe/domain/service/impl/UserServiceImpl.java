@@ -8,16 +8,19 @@ import java.util.Date;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import jakarta.transaction.Transactional;
+import rest.pkbe.config.AccessTokenRevocationList;
+import rest.pkbe.config.AuthenticatedUser;
 import rest.pkbe.config.JwtService;
+import rest.pkbe.config.UserDetailsServiceConfig;
 import rest.pkbe.domain.model.RefreshToken;
 import rest.pkbe.domain.model.User;
 import rest.pkbe.domain.repository.RefreshTokenRepository;
@@ -35,12 +38,19 @@ public class UserServiceImpl implements IUserService{
     private AuthenticationManager authenticationManager;
     @Autowired
     private JwtService jwtService;
+    @Autowired
+    private UserDetailsServiceConfig userDetailsServiceConfig;
+    @Autowired
+    private AccessTokenRevocationList revocationList;
+    // Máximo de sesiones activas (tokens de refresco) por usuario, 0 sin límite
+    @Value("${jwt.refresh-token.max-sessions:10}")
+    private int maxSessions;
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     
     @Transactional
     @Override
     public User register(User user) {
-        logger.info("Registrando usuario en la base de datos...");
+        logger.debug("Registrando usuario en la base de datos...");
         /**
          * Registra un usuario, si ya hay un correo ligado se rechaza la solicitud
          * El usuario que se recibe ya tiene la contraseña encriptada por nuestro passwordEncoder
@@ -49,13 +59,13 @@ public class UserServiceImpl implements IUserService{
             logger.error("Intento de registro fallido: Correo registrado");
             throw new IllegalArgumentException("El email ya está registrado");
         }
-        logger.info("Usuario registrado exitosamente [!]");
+        logger.debug("Usuario registrado exitosamente [!]");
         return userRepository.save(user);
     }
 
     @Override
     public String[] authenticate(String email, String password){
-        logger.info("Validando credenciales...");
+        logger.debug("Validando credenciales...");
         // Creamos un token sin autenticar
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email, password);
         // El manager se encarga de autenticarlo: llama internamente a UserDetailsServiceConfig -> loadByUsername (email) y si falla manda una exception
@@ -67,85 +77,85 @@ public class UserServiceImpl implements IUserService{
                 return new UsernameNotFoundException("Email inválido");
             });
         String token = jwtService.generateToken(user);
-        // Este token solo será guardado en la base de datos para refrescar la sesión
+        // Este token solo será guardado en la base de datos (como hash) para refrescar la sesión
         String refreshToken = jwtService.generateRefreshToken(user);
         RefreshToken persistencedRefreshToken = new RefreshToken();
-        persistencedRefreshToken.setToken(refreshToken);
+        persistencedRefreshToken.setTokenHash(jwtService.hashToken(refreshToken));
         persistencedRefreshToken.setUser(user);
-        // Creando LocalDateTime en base a un Date
-        Date expirationDate = jwtService.extracExpiration(refreshToken);
-        LocalDateTime expirLocalDateTime = LocalDateTime.ofInstant(expirationDate.toInstant(), ZoneId.systemDefault());
-        persistencedRefreshToken.setExpirationDate(expirLocalDateTime);
+        persistencedRefreshToken.setExpirationDate(toLocalDateTime(jwtService.extracExpiration(refreshToken)));
         // Guardamos token de refresco en la base de datos
         refreshTokenRepository.save(persistencedRefreshToken);
+        // Si el usuario supera el máximo de sesiones activas se eliminan las más antiguas
+        if(maxSessions > 0){
+            int evicted = refreshTokenRepository.trimSessions(user.getId(), maxSessions, LocalDateTime.now());
+            if(evicted > 0){
+                logger.info("Límite de sesiones alcanzado: {} sesiones antiguas cerradas", evicted);
+            }
+        }
 
         String [] res = {token, refreshToken};
-        logger.info("Login exitoso: Generando sesión [!]");
+        logger.debug("Login exitoso: Generando sesión [!]");
         return res;
     }
 
     @Override
-    @Transactional
+    @Transactional(dontRollbackOn = BadCredentialsException.class)
     public String[] refreshSession(String refreshToken){
-        logger.info("Renovando sesión...");
+        logger.debug("Renovando sesión...");
         /**
-         * Del token recibido sacamos el id del usuario y buscamos en la BD una coincidencia entre el token y el usuario y validamos que no haya expirado
-         * Si se cumplen estos puntos avanzamos a crear un token de refresco y un token de acceso nuevos.
+         * Al extraer el id del usuario se verifica la firma y la expiración del token recibido.
+         * La rotación es un solo UPDATE condicional sobre el hash del token: solo cambia la fila si el token es
+         * el vigente de la sesión, así no hace falta buscarlo, borrarlo e insertar uno nuevo.
         */
         Long userId = jwtService.extractUserId(refreshToken);
-        RefreshToken oldToken = refreshTokenRepository.findByTokenAndUserId(refreshToken, userId)
-            .orElseThrow(() -> {
-                logger.error("Intento de renovación de sesión fallida: Credenciales inválidas");
-                return new BadCredentialsException("Credenciales inválidas");
-            });
-        if(jwtService.isTokenExpired(refreshToken)){
-            logger.error("Intento de renovación de sesión fallida: Token expirado");
-            throw new CredentialsExpiredException("El token no es válido. Valida tus credenciales");
-        }
+        AuthenticatedUser user = userDetailsServiceConfig.loadPrincipalById(userId);
 
-        /**
-         * Como la sesion se valida por el token de refresco:
-         * Creamos un nuevo token de acceso y un nuevo token de refresco
-         * Borramos el oldRefreshToken de la bd y agregamos uno nuevo
-         */
-        String newAccessToken = jwtService.generateToken(oldToken.getUser());   // listo para retornar
-        String newRefreshToken = jwtService.generateRefreshToken(oldToken.getUser());
+        String newAccessToken = jwtService.generateToken(user.getId(), user.getEmail());   // listo para retornar
+        String newRefreshToken = jwtService.generateRefreshToken(user.getId());
+        LocalDateTime expirLocalDateTime = toLocalDateTime(jwtService.extracExpiration(newRefreshToken));
 
-        RefreshToken persistencedRefreshToken = new RefreshToken();
-        persistencedRefreshToken.setToken(newRefreshToken);
-        persistencedRefreshToken.setUser(oldToken.getUser());
-        // Calculamos la fecha de expiración
-        Date expirationDate = jwtService.extracExpiration(newRefreshToken);
-        LocalDateTime expirLocalDateTime = LocalDateTime.ofInstant(expirationDate.toInstant(), ZoneId.systemDefault());
-        persistencedRefreshToken.setExpirationDate(expirLocalDateTime);
+        String oldHash = jwtService.hashToken(refreshToken);
+        int rotated = refreshTokenRepository.rotate(userId, oldHash, jwtService.hashToken(newRefreshToken),
+            expirLocalDateTime, LocalDateTime.now());
+        if(rotated == 0){
+            /**
+             * El token no es el vigente: si es el que se rotó por última vez alguien lo está reutilizando
+             * (posible robo), se revoca la sesión completa y el usuario tiene que iniciar sesión de nuevo
+             */
+            if(refreshTokenRepository.deleteByPreviousTokenHash(oldHash, userId) > 0){
+                logger.error("Intento de renovación de sesión fallida: Token reutilizado, sesión revocada");
+            }else{
+                logger.error("Intento de renovación de sesión fallida: Credenciales inválidas");
+            }
+            throw new BadCredentialsException("Credenciales inválidas");
+        }
 
-        // Borramos el token de refresco usado
-        refreshTokenRepository.delete(oldToken);
-        // Agregamos el nuevo
-        refreshTokenRepository.save(persistencedRefreshToken);
-        
-        logger.info("Sesión renovada exitosamente: Token de refresco generado [!]");
+        logger.debug("Sesión renovada exitosamente: Token de refresco generado [!]");
         String [] res = { newAccessToken, newRefreshToken };
         return res;
     }
-    
+
+    @Override
+    @Transactional
     public void logout(String refreshToken, Long userId, String accessToken){
         /**
-         * - Primero revisamos que el token exista antes de borrarlo, si existe, lo borramos dado su id
+         * - Borramos la sesión dado el hash de su token de refresco, si no existe la petición es inválida
+         * - Revocamos el token de acceso por su jti para que no se pueda usar hasta su expiración
          * - Ahora limpiamos el contexto de seguridad
          */
-        // Para que funcione correctamente tenemos que poner el token de acceso en una
-        // blacklist, por lo que tenemos que obtener el token de acceso del header desde la petición
-        // es decir capturado por el controler y envíado al servicio, para así obtener el jti del token y banearlo
-        RefreshToken oldToken = refreshTokenRepository.findByTokenAndUserId(refreshToken, userId)
-                .orElseThrow(() -> {
-                    logger.error("Intento de renovación de sesión fallida: Credenciales inválidas");
-                    return new BadCredentialsException("Credenciales inválidas");
-                });
-        refreshTokenRepository.deleteById(oldToken.getId());
+        if(refreshTokenRepository.deleteByTokenHash(jwtService.hashToken(refreshToken), userId) == 0){
+            logger.error("Intento de cierre de sesión fallido: Credenciales inválidas");
+            throw new BadCredentialsException("Credenciales inválidas");
+        }
+        revocationList.revoke(jwtService.extractJti(accessToken), jwtService.extracExpiration(accessToken));
         SecurityContextHolder.clearContext();
 
         logger.debug("");
     }
 
+    // Convierte la expiración de un token (Date) a LocalDateTime
+    private LocalDateTime toLocalDateTime(Date date){
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
 }
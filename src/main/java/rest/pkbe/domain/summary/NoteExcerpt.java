@@ -0,0 +1,31 @@
+package rest.pkbe.domain.summary;
+
+import java.util.regex.Pattern;
+
+/**
+ * Calcula el extracto de una nota que se muestra en los listados.
+ * Se quitan los símbolos de markdown más comunes, se compactan los espacios y saltos de línea
+ * y se recorta a MAX_LENGTH caracteres. La migración V9 aplica las mismas reglas a las notas existentes.
+ */
+public final class NoteExcerpt {
+
+    // Debe coincidir con la longitud de la columna notes.excerpt
+    public static final int MAX_LENGTH = 200;
+
+    private static final Pattern MARKDOWN = Pattern.compile("[#*_`>~\\[\\]]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private NoteExcerpt() {}
+
+    public static String of(String content) {
+        if (content == null) {
+            return "";
+        }
+        String plain = WHITESPACE.matcher(MARKDOWN.matcher(content).replaceAll("")).replaceAll(" ").trim();
+        if (plain.codePointCount(0, plain.length()) <= MAX_LENGTH) {
+            return plain;
+        }
+        // Se cuenta por code points para no partir caracteres fuera del BMP (emojis)
+        return plain.substring(0, plain.offsetByCodePoints(0, MAX_LENGTH));
+    }
+}
@@ -0,0 +1,21 @@
+package rest.pkbe.domain.summary;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resumen de una nota para los listados: título, extracto, fecha de creación y nombres de sus tags.
+ */
+@Getter
+@AllArgsConstructor
+public class NoteSummary {
+
+    private final Long id;
+    private final String title;
+    private final String excerpt;
+    private final LocalDateTime createdAt;
+    private final Set<String> tags;
+}
@@ -0,0 +1,20 @@
+package rest.pkbe.domain.summary;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección plana de una nota con una de sus tags (una fila por tag, tagName es null si no tiene).
+ * Solo incluye las columnas del listado resumido, el contenido completo no se lee de la base de datos.
+ */
+public interface NoteSummaryRow {
+
+    Long getId();
+
+    String getTitle();
+
+    String getExcerpt();
+
+    LocalDateTime getCreatedAt();
+
+    String getTagName();
+}
@@ -27,6 +27,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import rest.pkbe.exception.dto.ExceptionResponse;
 import rest.pkbe.exception.exceptions.ResourceNotFoundException;
+import rest.pkbe.exception.exceptions.ServiceUnavailableException;
 
 /**
  * Manejador global de excepciones para la API REST de PKBE.
@@ -300,6 +301,22 @@ public class GlobalExceptionHandler {
                         "Datos inválidos: " + ex.getMessage(), request.getRequestURI()));
     }
 
+    /**
+     * Maneja excepción cuando un recurso limitado del servidor está saturado (p. ej. el cifrado de contraseñas).
+     * Se responde de inmediato para que el cliente reintente más tarde en lugar de esperar.
+     * @param ex excepción lanzada
+     * @param request petición HTTP
+     * @return respuesta con estado 503 y encabezado Retry-After
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ExceptionResponse> handleServiceUnavailableException(ServiceUnavailableException ex, HttpServletRequest request){
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servicio saturado", ex.getMessage(),
+                        request.getRequestURI()));
+    }
+
     // =====================
     // Excepción general (catch-all)
     // =====================
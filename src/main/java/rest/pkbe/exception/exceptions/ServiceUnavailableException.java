@@ -0,0 +1,7 @@
+package rest.pkbe.exception.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException{
+    public ServiceUnavailableException(String message){
+        super(message);
+    }
+}
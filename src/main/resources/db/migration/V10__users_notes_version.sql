@@ -0,0 +1,3 @@
+-- Versión de las notas de cada usuario, se incrementa con cada cambio en sus notas
+-- Permite calcular el ETag de los listados con una sola búsqueda por llave primaria
+ALTER TABLE users ADD COLUMN notes_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Los tokens de refresco se guardan como SHA-256 (hex) en una columna indexada en lugar del JWT completo
+-- previous_token_hash conserva el token anterior de la sesión para detectar la reutilización de un token ya rotado
+ALTER TABLE refresh_token ADD COLUMN token_hash VARCHAR(64);
+ALTER TABLE refresh_token ADD COLUMN previous_token_hash VARCHAR(64);
+UPDATE refresh_token SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+
+-- Antes un mismo JWT podía guardarse dos veces (dos inicios de sesión en el mismo segundo), se conserva uno
+DELETE FROM refresh_token r
+USING refresh_token d
+WHERE r.token_hash = d.token_hash AND r.id < d.id;
+
+ALTER TABLE refresh_token ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_token DROP COLUMN token;
+CREATE UNIQUE INDEX uq_refresh_token_hash ON refresh_token (token_hash);
+CREATE INDEX idx_refresh_token_previous_hash ON refresh_token (previous_token_hash) WHERE previous_token_hash IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Índices para la purga periódica de tokens expirados y para el límite de sesiones por usuario
+CREATE INDEX idx_refresh_token_expiration ON refresh_token (expiration_date);
+CREATE INDEX idx_refresh_token_user_id ON refresh_token (user_id, id);
@@ -0,0 +1,7 @@
+-- Tokens de acceso revocados (logout) identificados por su jti, se usan para reconstruir la lista en memoria al iniciar
+-- Cada fila deja de ser necesaria cuando el token hubiera expirado de todos modos
+CREATE TABLE revoked_access_token(
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX idx_revoked_access_token_expires_at ON revoked_access_token (expires_at);
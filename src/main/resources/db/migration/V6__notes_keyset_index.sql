@@ -0,0 +1 @@
+CREATE INDEX idx_notes_user_created_id ON notes (user_id, created_at, id);
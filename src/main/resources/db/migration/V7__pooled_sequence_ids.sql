@@ -0,0 +1,12 @@
+-- Notas y tags pasan de IDENTITY a secuencias con incremento de 50 (optimizador pooled de Hibernate)
+-- para que las inserciones puedan agruparse en lotes JDBC.
+-- El DEFAULT se conserva para las inserciones hechas directamente con SQL.
+ALTER TABLE notes ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE notes_id_seq INCREMENT BY 50 OWNED BY notes.id;
+SELECT setval('notes_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM notes;
+ALTER TABLE notes ALTER COLUMN id SET DEFAULT nextval('notes_id_seq');
+
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE tags_id_seq INCREMENT BY 50 OWNED BY tags.id;
+SELECT setval('tags_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM tags;
+ALTER TABLE tags ALTER COLUMN id SET DEFAULT nextval('tags_id_seq');
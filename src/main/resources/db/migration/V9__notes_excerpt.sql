@@ -0,0 +1,8 @@
+-- Extracto del contenido de cada nota para el listado resumido (GET /notes?view=summary)
+-- La aplicación lo mantiene al guardar la nota (NoteExcerpt), aquí solo se calcula para las notas existentes
+ALTER TABLE notes ADD COLUMN excerpt VARCHAR(200) NOT NULL DEFAULT '';
+
+UPDATE notes
+SET excerpt = left(btrim(regexp_replace(regexp_replace(content, '[#*_`>~\[\]]', '', 'g'), '\s+', ' ', 'g')), 200);
+
+ALTER TABLE notes ALTER COLUMN excerpt DROP DEFAULT;
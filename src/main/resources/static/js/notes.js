@@ -96,17 +96,26 @@ const getNotes = async () => {
     if (!accessToken) {
         throw new Error('Sin acceso...');
     }
-    const response = await fetch('http://localhost:8080/notes', {
-        method: 'GET',
-        headers: {
-            'Authorization': `Bearer ${accessToken}`
+    // Las notas se entregan por páginas, seguimos el cursor hasta recuperar todas
+    // El listado solo muestra un extracto, así que pedimos la vista resumida (sin el contenido completo)
+    const notes = [];
+    let cursor = null;
+    do {
+        const url = 'http://localhost:8080/notes?size=100&view=summary' + (cursor ? '&cursor=' + encodeURIComponent(cursor) : '');
+        const response = await fetch(url, {
+            method: 'GET',
+            headers: {
+                'Authorization': `Bearer ${accessToken}`
+            }
+        });
+        if(!response.ok){
+            throw new Error("La petición falló intentalo de nuevo - código: " + response.status);
         }
-    });
-    if(!response.ok){
-        throw new Error("La petición falló intentalo de nuevo - código: " + response.status);
-    }
-    const data = await response.json();
-    return data;
+        const page = await response.json();
+        notes.push(...page.items);
+        cursor = page.nextCursor;
+    } while (cursor);
+    return notes;
 };
 
 const renderizarDivs = (list) => {
@@ -114,7 +123,7 @@ const renderizarDivs = (list) => {
     const htmlItems = list.map(item => `
         <div class="card" id="item-${item.id}">
             <h3>${item.title}</h3>
-            <p>${item.content}</p>
+            <p>${item.excerpt}</p>
             <h4>${item.createdAt}</h4>
             <ul>
                 ${item.tags.map(tag => `<li>${tag}</li>`).join('')}
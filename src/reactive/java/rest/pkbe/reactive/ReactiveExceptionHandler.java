@@ -0,0 +1,68 @@
+package rest.pkbe.reactive;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import rest.pkbe.exception.dto.ExceptionResponse;
+import rest.pkbe.exception.exceptions.ResourceNotFoundException;
+
+/**
+ * Manejador de excepciones de la ruta reactiva, con las mismas respuestas que GlobalExceptionHandler
+ * para los errores que pueden producir GET /notes y GET /notes/{noteId}.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    private ExceptionResponse buildResponse(int status, String error, String message, String path){
+        logger.error(
+            "Solicitud fallida... \nTimeStamp: {}\tStatus: {}\nError: {}\tMessage: {}\nPath: {}",
+            LocalDateTime.now(), status, error, message, path);
+        return new ExceptionResponse(LocalDateTime.now(), status, error, message, path);
+    }
+
+    /**
+     * Maneja excepción cuando un recurso solicitado no existe.
+     * @return respuesta con estado 404 y mensaje de recurso no encontrado
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ExceptionResponse> handleResourceNotFoundException(ResourceNotFoundException ex, ServerHttpRequest request){
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(buildResponse(HttpStatus.NOT_FOUND.value(), "Recurso no encontrado", ex.getMessage(),
+                        request.getPath().value()));
+    }
+
+    /**
+     * Maneja excepción cuando se recibe un argumento ilegal o inválido (tamaño de página, vista o cursor).
+     * @return respuesta con estado 400 y mensaje de datos inválidos
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ExceptionResponse> handleIllegalArgumentException(IllegalArgumentException ex, ServerHttpRequest request){
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(buildResponse(HttpStatus.BAD_REQUEST.value(), "Petición inválida",
+                        "Datos inválidos: " + ex.getMessage(), request.getPath().value()));
+    }
+
+    /**
+     * Maneja parámetros que no se pueden convertir (p. ej. size=abc o un noteId no numérico).
+     * @return respuesta con estado 400 y mensaje de datos inválidos
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ExceptionResponse> handleServerWebInputException(ServerWebInputException ex, ServerHttpRequest request){
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(buildResponse(HttpStatus.BAD_REQUEST.value(), "Petición inválida",
+                        "Datos inválidos: " + ex.getReason(), request.getPath().value()));
+    }
+}
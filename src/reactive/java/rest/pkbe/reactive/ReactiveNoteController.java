@@ -0,0 +1,130 @@
+package rest.pkbe.reactive;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Mono;
+import rest.pkbe.api.dto.response.note.NoteDTO;
+import rest.pkbe.api.dto.response.note.NotePageDTO;
+import rest.pkbe.api.dto.response.note.NoteSummaryDTO;
+import rest.pkbe.api.dto.response.note.NoteSummaryPageDTO;
+import rest.pkbe.config.AuthenticatedUser;
+import rest.pkbe.domain.pagination.NoteCursor;
+import rest.pkbe.exception.exceptions.ResourceNotFoundException;
+import rest.pkbe.reactive.ReactiveNoteRepository.NoteRow;
+
+/**
+ * Versión reactiva de GET /notes y GET /notes/{noteId} de NoteController.
+ * Mismos parámetros, mismas respuestas y mismo cursor, así el cliente puede usar cualquiera de las dos rutas.
+ * No calcula ETag (las respuestas siempre son 200).
+ */
+@RestController
+@RequestMapping("/notes")
+public class ReactiveNoteController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ReactiveNoteRepository noteRepository;
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveNoteController.class);
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllUserNotes(Authentication authentication,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = "desc") String direction,
+        @RequestParam(defaultValue = "full") String view){
+        logger.info("Iniciando GET / - Obtener notas de un usuario");
+        AuthenticatedUser user = principal(authentication);
+        /**
+         * - Validamos la vista, el tamaño de página y el cursor antes de consultar
+         * - Pedimos una nota de más para saber si existe una página siguiente sin hacer un COUNT
+         * - El cursor siguiente es la posición (createdAt, id) de la última nota entregada
+         */
+        if(!"full".equalsIgnoreCase(view) && !"summary".equalsIgnoreCase(view)){
+            logger.error("Obtención de notas fallida: Vista inválida");
+            throw new IllegalArgumentException("La vista debe ser full o summary");
+        }
+        if(size < 1 || size > MAX_PAGE_SIZE){
+            logger.error("Obtención de notas fallida: Tamaño de página inválido");
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        boolean ascending = "asc".equalsIgnoreCase(direction);
+        if(!ascending && !"desc".equalsIgnoreCase(direction)){
+            throw new IllegalArgumentException("La dirección debe ser asc o desc");
+        }
+        NoteCursor after = cursor == null || cursor.isBlank() ? null : NoteCursor.decode(cursor);
+        boolean summary = "summary".equalsIgnoreCase(view);
+
+        return noteRepository.findPage(user.getId(), after, ascending, summary, size + 1)
+            .collectList()
+            .map(rows -> {
+                boolean hasNext = rows.size() > size;
+                List<NoteRow> page = hasNext ? rows.subList(0, size) : rows;
+                String nextCursor = null;
+                if(hasNext){
+                    NoteRow last = page.get(page.size() - 1);
+                    nextCursor = new NoteCursor(last.getCreatedAt(), last.getId()).encode();
+                }
+                logger.info("Operación GET / - Finalizada");
+                if(summary){
+                    return ResponseEntity.ok(new NoteSummaryPageDTO(page.stream().map(this::toSummaryDTO).toList(), nextCursor, hasNext));
+                }
+                return ResponseEntity.ok(new NotePageDTO(page.stream().map(this::toDTO).toList(), nextCursor, hasNext));
+            });
+    }
+
+    @GetMapping("/{noteId}")
+    public Mono<ResponseEntity<NoteDTO>> getNoteById(@PathVariable Long noteId, Authentication authentication){
+        logger.info("Iniciando GET /{} - Obtener nota", noteId);
+        AuthenticatedUser user = principal(authentication);
+        return noteRepository.findByIdAndUserId(noteId, user.getId())
+            .switchIfEmpty(Mono.error(() -> {
+                logger.error("Carga fallida: La nota no existe");
+                return new ResourceNotFoundException("La nota no existe");
+            }))
+            .map(row -> {
+                logger.info("Operación GET /{} - Finalizada", noteId);
+                return ResponseEntity.ok(toDTO(row));
+            });
+    }
+
+    /**
+     * En WebFlux un parámetro de tipo Principal (AuthenticatedUser lo es) se resuelve con el Authentication
+     * completo antes que @AuthenticationPrincipal, por eso se recibe el Authentication y se extrae el usuario
+     */
+    private static AuthenticatedUser principal(Authentication authentication){
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+
+    /**
+     * Construye el DTO de una nota completa
+     */
+    private NoteDTO toDTO(NoteRow row){
+        return NoteDTO.builder()
+            .id(row.getId())
+            .title(row.getTitle())
+            .content(row.getBody())
+            .createdAt(row.getCreatedAt().toString().split("T")[0])
+            .tags(row.getTags())
+            .build();
+    }
+
+    /**
+     * Construye el DTO de una nota en el listado resumido
+     */
+    private NoteSummaryDTO toSummaryDTO(NoteRow row){
+        return new NoteSummaryDTO(row.getId(), row.getTitle(), row.getBody(),
+            row.getCreatedAt().toString().split("T")[0], row.getTags());
+    }
+}
@@ -0,0 +1,117 @@
+package rest.pkbe.reactive;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rest.pkbe.domain.pagination.NoteCursor;
+
+/**
+ * Consultas de lectura de notas por R2DBC.
+ * Cada página se resuelve en una sola consulta: primero se obtienen los ids de la página por keyset
+ * (índice notes(user_id, created_at, id)) y después se agregan sus tags con array_agg, por lo que
+ * no hay N+1 ni una segunda ida a la base de datos.
+ */
+@Repository
+public class ReactiveNoteRepository {
+
+    // %1$s: columna de contenido (content o excerpt), %2$s: condición del cursor, %3$s: ASC o DESC
+    private static final String PAGE_SQL = """
+        SELECT p.id, p.title, p.body, p.created_at,
+               array_agg(t.name ORDER BY t.name) FILTER (WHERE t.name IS NOT NULL) AS tags
+        FROM (
+            SELECT n.id, n.title, n.%1$s AS body, n.created_at
+            FROM notes n
+            WHERE n.user_id = :userId %2$s
+            ORDER BY n.created_at %3$s, n.id %3$s
+            LIMIT :limit
+        ) p
+        LEFT JOIN note_tags nt ON nt.note_id = p.id
+        LEFT JOIN tags t ON t.id = nt.tag_id
+        GROUP BY p.id, p.title, p.body, p.created_at
+        ORDER BY p.created_at %3$s, p.id %3$s
+        """;
+
+    private static final String NOTE_SQL = """
+        SELECT n.id, n.title, n.content AS body, n.created_at,
+               array_agg(t.name ORDER BY t.name) FILTER (WHERE t.name IS NOT NULL) AS tags
+        FROM notes n
+        LEFT JOIN note_tags nt ON nt.note_id = n.id
+        LEFT JOIN tags t ON t.id = nt.tag_id
+        WHERE n.id = :noteId AND n.user_id = :userId
+        GROUP BY n.id, n.title, n.content, n.created_at
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveNoteRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Fila de nota con sus tags. body es el contenido completo o el extracto según la consulta.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class NoteRow {
+        private final Long id;
+        private final String title;
+        private final String body;
+        private final LocalDateTime createdAt;
+        private final Set<String> tags;
+    }
+
+    /**
+     * Recupera hasta limit notas del usuario después del cursor (si lo hay).
+     * @param summary true para regresar el extracto en lugar del contenido completo
+     */
+    public Flux<NoteRow> findPage(Long userId, NoteCursor after, boolean ascending, boolean summary, int limit) {
+        String cursorCondition = after == null ? ""
+            : ascending ? "AND (n.created_at, n.id) > (:createdAt, :id)" : "AND (n.created_at, n.id) < (:createdAt, :id)";
+        String sql = PAGE_SQL.formatted(summary ? "excerpt" : "content", cursorCondition, ascending ? "ASC" : "DESC");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+            .bind("userId", userId)
+            .bind("limit", limit);
+        if (after != null) {
+            spec = spec
+                .bind("createdAt", after.getCreatedAt().atZone(ZoneId.systemDefault()).toOffsetDateTime())
+                .bind("id", after.getId());
+        }
+        return spec.map(ReactiveNoteRepository::toRow).all();
+    }
+
+    /**
+     * Recupera una nota del usuario con su contenido completo, vacío si no existe o no le pertenece.
+     */
+    public Mono<NoteRow> findByIdAndUserId(Long noteId, Long userId) {
+        return databaseClient.sql(NOTE_SQL)
+            .bind("noteId", noteId)
+            .bind("userId", userId)
+            .map(ReactiveNoteRepository::toRow)
+            .one();
+    }
+
+    private static NoteRow toRow(Readable row) {
+        // created_at es TIMESTAMPTZ, se convierte a la zona del servidor igual que lo hace Hibernate
+        OffsetDateTime createdAt = row.get("created_at", OffsetDateTime.class);
+        String[] tags = row.get("tags", String[].class);
+        return new NoteRow(
+            row.get("id", Long.class),
+            row.get("title", String.class),
+            row.get("body", String.class),
+            createdAt.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(),
+            tags == null ? new LinkedHashSet<>() : new LinkedHashSet<>(Arrays.asList(tags)));
+    }
+}
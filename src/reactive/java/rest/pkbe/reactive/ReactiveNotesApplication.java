@@ -0,0 +1,52 @@
+package rest.pkbe.reactive;
+
+import java.util.Map;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Aplicación de solo lectura que sirve GET /notes y GET /notes/{noteId} con WebFlux y R2DBC.
+ *
+ * Usa el mismo esquema que la aplicación principal: Flyway aplica las mismas migraciones por JDBC al iniciar
+ * y las consultas se hacen por R2DBC sin bloquear los hilos del event loop de Netty.
+ * No se cargan JPA ni el DataSource (solo se escanea este paquete), la escritura sigue en PkbeApplication.
+ * Se empaqueta con el perfil de Maven reactive (ver README).
+ */
+@SpringBootApplication(exclude = {
+    DataSourceAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    ReactiveUserDetailsServiceAutoConfiguration.class
+})
+public class ReactiveNotesApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveNotesApplication.class)
+			.web(WebApplicationType.REACTIVE)
+			.profiles("reactive")
+			// Flyway y R2DBC toman las credenciales de las mismas propiedades que la aplicación principal,
+			// solo spring.r2dbc.url se indica por separado
+			.properties(Map.of(
+				"spring.flyway.url", "${spring.datasource.url}",
+				"spring.flyway.user", "${spring.datasource.username}",
+				"spring.flyway.password", "${spring.datasource.password:}",
+				"spring.r2dbc.username", "${spring.datasource.username}",
+				"spring.r2dbc.password", "${spring.datasource.password:}"))
+			.run(args);
+	}
+
+	/**
+	 * Con spring-boot-starter-web también en el classpath se fuerza Netty como servidor
+	 */
+	@Bean
+	NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+}
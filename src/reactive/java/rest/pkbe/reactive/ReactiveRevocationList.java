@@ -0,0 +1,72 @@
+package rest.pkbe.reactive;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Copia de solo lectura de la tabla revoked_access_token para la ruta reactiva.
+ * Los tokens se revocan en la aplicación principal (logout), aquí se consulta la tabla periódicamente
+ * y se reemplaza el conjunto completo: un logout tarda como máximo jwt.revocation.poll-interval en aplicarse.
+ */
+@Component
+public class ReactiveRevocationList {
+
+    private final DatabaseClient databaseClient;
+    private final Duration pollInterval;
+    private volatile Set<String> revoked = Set.of();
+    private Disposable polling;
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRevocationList.class);
+
+    public ReactiveRevocationList(
+        DatabaseClient databaseClient,
+        @Value("${jwt.revocation.poll-interval:10s}") Duration pollInterval) {
+
+        this.databaseClient = databaseClient;
+        this.pollInterval = pollInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        polling = Flux.interval(Duration.ZERO, pollInterval)
+            .concatMap(tick -> reload()
+                .doOnError(ex -> logger.error("Recarga de tokens revocados fallida: {}", ex.getMessage()))
+                .onErrorComplete())
+            .subscribe(jtis -> revoked = jtis);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * @return true si el token con este jti fue revocado
+     */
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.contains(jti);
+    }
+
+    private Mono<Set<String>> reload() {
+        return databaseClient.sql("SELECT jti FROM revoked_access_token WHERE expires_at > :now")
+            .bind("now", OffsetDateTime.now())
+            .map(row -> row.get("jti", String.class))
+            .all()
+            .collect(Collectors.toUnmodifiableSet());
+    }
+}
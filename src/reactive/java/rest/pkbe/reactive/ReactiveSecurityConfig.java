@@ -0,0 +1,151 @@
+package rest.pkbe.reactive;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.savedrequest.NoOpServerRequestCache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Mono;
+import rest.pkbe.config.AuthenticatedUser;
+import rest.pkbe.config.JwtService;
+import rest.pkbe.exception.dto.ExceptionResponse;
+
+/**
+ * Configuración de seguridad de la ruta reactiva, equivalente a SecurityConfig + JwtAuthenticationFilter.
+ *
+ * - El token se lee del encabezado Authorization y se verifica con el mismo JwtService (y su caché de claims)
+ * - El usuario autenticado se construye solo con los claims del token (jwt.principal.claims-only), así la
+ *   autenticación no hace I/O y no bloquea el event loop
+ * - Los tokens revocados se rechazan con ReactiveRevocationList
+ * - Sin sesión: el contexto de seguridad no se guarda entre peticiones
+ * - Solo se permiten GET /notes y GET /notes/{noteId}, cualquier otra ruta se niega
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSecurityConfig.class);
+
+    /**
+     * El mismo servicio de tokens que la aplicación principal (mismas propiedades jwt.*)
+     */
+    @Bean
+    JwtService jwtService() {
+        return new JwtService();
+    }
+
+    @Bean
+    SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService,
+        ReactiveRevocationList revocationList, ObjectMapper objectMapper) {
+
+        ServerAuthenticationEntryPoint entryPoint = unauthorizedEntryPoint(objectMapper);
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(authenticationManager(jwtService, revocationList));
+        jwtFilter.setServerAuthenticationConverter(bearerTokenConverter());
+        jwtFilter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(entryPoint));
+        jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .logout(ServerHttpSecurity.LogoutSpec::disable)
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            // Sin caché de peticiones para no crear una WebSession en cada 401
+            .requestCache(cache -> cache.requestCache(NoOpServerRequestCache.getInstance()))
+            .authorizeExchange(exchange -> exchange
+                .pathMatchers(HttpMethod.GET, "/notes", "/notes/*").authenticated()
+                .anyExchange().denyAll())
+            .exceptionHandling(exception -> exception.authenticationEntryPoint(entryPoint))
+            .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+
+    /**
+     * Extrae el token del encabezado Authorization: Bearer, sin encabezado la petición sigue sin autenticación
+     */
+    private ServerAuthenticationConverter bearerTokenConverter() {
+        return exchange -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+                return Mono.empty();
+            }
+            String jwt = authHeader.substring(BEARER_PREFIX.length());
+            return Mono.just(new UsernamePasswordAuthenticationToken(null, jwt));
+        };
+    }
+
+    /**
+     * Verifica el token y construye el usuario autenticado con sus claims.
+     * La verificación es CPU (HMAC) y casi siempre un acierto de la caché de claims, por eso se hace en el event loop
+     */
+    private ReactiveAuthenticationManager authenticationManager(JwtService jwtService, ReactiveRevocationList revocationList) {
+        return authentication -> Mono.fromCallable(() -> {
+            String jwt = (String) authentication.getCredentials();
+            final Claims claims;
+            try {
+                claims = jwtService.extractClaims(jwt);
+            } catch (JwtException | IllegalArgumentException ex) {
+                logger.error("Proceso de Autenticación fallido: Credenciales inválidas");
+                throw new BadCredentialsException("Token inválido", ex);
+            }
+            if (revocationList.isRevoked(claims.getId())) {
+                logger.debug("> Token revocado");
+                throw new BadCredentialsException("Token revocado");
+            }
+            String userEmail = claims.get("email", String.class);
+            if (userEmail == null || !jwtService.isTokenValid(claims, userEmail)) {
+                throw new BadCredentialsException("Token inválido");
+            }
+            AuthenticatedUser principal = new AuthenticatedUser(Long.valueOf(claims.getSubject()), userEmail);
+            return new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
+        });
+    }
+
+    /**
+     * Responde 401 con el mismo cuerpo que GlobalExceptionHandler
+     */
+    private ServerAuthenticationEntryPoint unauthorizedEntryPoint(ObjectMapper objectMapper) {
+        return (exchange, ex) -> {
+            logger.error("Petición no autorizada frenada: Abortando operación");
+            ExceptionResponse body = new ExceptionResponse(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(),
+                "Sin acceso", "Credenciales inválidas", exchange.getRequest().getPath().value());
+            byte[] bytes;
+            try {
+                bytes = objectMapper.writeValueAsBytes(body);
+            } catch (JsonProcessingException jsonEx) {
+                return Mono.error(jsonEx);
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(bytes);
+            return exchange.getResponse().writeWith(Mono.just(buffer));
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package rest.pkbe.api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static rest.pkbe.config.StatementBudgetMatchers.oneConnectionAtATime;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import rest.pkbe.config.JwtService;
+import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.model.User;
+import rest.pkbe.domain.repository.UserRepository;
+import rest.pkbe.domain.service.INoteService;
+
+/**
+ * Verifica que los listados de notas usen una sola conexión a la vez, también mientras se escriben las filas.
+ * Con open-in-view el EntityManager de la petición conserva su conexión hasta el final, así que una consulta
+ * fuera de su transacción pediría una segunda conexión al pool y bajo carga podría bloquear el límite de concurrencia.
+ */
+@SpringBootTest(properties = "spring.jpa.open-in-view=true")
+@AutoConfigureMockMvc
+class NoteControllerConnectionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JwtService jwtService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private INoteService noteService;
+
+	private User user;
+	private String authorization;
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setUsername("connections");
+		user.setEmail("connections-" + System.nanoTime() + "@pkbe.test");
+		user.setPasswordHash("hash");
+		user = userRepository.save(user);
+		authorization = "Bearer " + jwtService.generateToken(user);
+		for (int i = 0; i < 3; i++) {
+			Note note = new Note();
+			note.setTitle("titulo " + i);
+			note.setContent("contenido");
+			noteService.createNote(user.getId(), note, Set.of("tag-" + i));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteById(user.getId());
+	}
+
+	@Test
+	void listEndpointsUseOneConnectionAtATime() throws Exception {
+		mockMvc.perform(get("/notes").param("size", "2").header("Authorization", authorization))
+			.andExpect(status().isOk())
+			.andExpect(oneConnectionAtATime());
+		mockMvc.perform(get("/notes").param("view", "summary").header("Authorization", authorization))
+			.andExpect(status().isOk())
+			.andExpect(oneConnectionAtATime());
+		mockMvc.perform(get("/notes").param("legacy", "true").header("Authorization", authorization))
+			.andExpect(status().isOk())
+			.andExpect(oneConnectionAtATime());
+	}
+}
@@ -0,0 +1,129 @@
+package rest.pkbe.api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static rest.pkbe.config.StatementBudgetMatchers.withinStatementBudget;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import rest.pkbe.config.JwtService;
+import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.model.User;
+import rest.pkbe.domain.repository.UserRepository;
+import rest.pkbe.domain.service.INoteService;
+
+/**
+ * Verifica que los endpoints de notas no excedan su presupuesto de sentencias SQL (@StatementBudget)
+ * con notas de muchas tags: un N+1 al cargar o borrar relaciones hace que la prueba falle.
+ * Sin transacción de prueba para que las peticiones hagan flush y commit como en producción;
+ * el usuario y sus datos se borran al terminar (ON DELETE CASCADE).
+ */
+@SpringBootTest(properties = "sql.budget.sample-rate=1")
+@AutoConfigureMockMvc
+class NoteControllerStatementBudgetTests {
+
+	private static final int TAGS = 12;
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private JwtService jwtService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private INoteService noteService;
+
+	private User user;
+	private String authorization;
+
+	@BeforeEach
+	void setUp() {
+		user = new User();
+		user.setUsername("statement-budget");
+		user.setEmail("statement-budget-" + System.nanoTime() + "@pkbe.test");
+		user.setPasswordHash("hash");
+		user = userRepository.save(user);
+		authorization = "Bearer " + jwtService.generateToken(user);
+		for (int i = 0; i < 5; i++) {
+			noteService.createNote(user.getId(), newNote(), tags("tag-" + i + "-"));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteById(user.getId());
+	}
+
+	@Test
+	void readEndpointsStayWithinBudget() throws Exception {
+		mockMvc.perform(get("/notes").header("Authorization", authorization))
+			.andExpect(status().isOk())
+			.andExpect(withinStatementBudget());
+		mockMvc.perform(get("/notes").param("view", "summary").header("Authorization", authorization))
+			.andExpect(status().isOk())
+			.andExpect(withinStatementBudget());
+		Note note = noteService.createNote(user.getId(), newNote(), tags("read-"));
+		mockMvc.perform(get("/notes/{id}", note.getId()).header("Authorization", authorization))
+			.andExpect(status().isOk())
+			.andExpect(withinStatementBudget());
+	}
+
+	@Test
+	void writeEndpointsStayWithinBudget() throws Exception {
+		String created = mockMvc.perform(post("/notes").header("Authorization", authorization)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(Map.of("title", "nota", "content", "contenido", "tags", tags("new-")))))
+			.andExpect(status().isCreated())
+			.andExpect(withinStatementBudget())
+			.andReturn().getResponse().getContentAsString();
+		long noteId = objectMapper.readTree(created).get("id").asLong();
+
+		// Conserva la mitad de las tags, quita dos y agrega el resto
+		Set<String> updated = new HashSet<>(tags("new-"));
+		updated.remove("new-0");
+		updated.remove("new-1");
+		updated.addAll(tags("added-"));
+		mockMvc.perform(patch("/notes/{id}", noteId).header("Authorization", authorization)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(Map.of("title", "editada", "tags", updated))))
+			.andExpect(status().isOk())
+			.andExpect(withinStatementBudget());
+
+		mockMvc.perform(delete("/notes/{id}", noteId).header("Authorization", authorization))
+			.andExpect(status().isOk())
+			.andExpect(withinStatementBudget());
+	}
+
+	private static Note newNote() {
+		Note note = new Note();
+		note.setTitle("titulo");
+		note.setContent("contenido");
+		return note;
+	}
+
+	private static Set<String> tags(String prefix) {
+		Set<String> tags = new HashSet<>();
+		for (int i = 0; i < TAGS; i++) {
+			tags.add(prefix + i);
+		}
+		return tags;
+	}
+}
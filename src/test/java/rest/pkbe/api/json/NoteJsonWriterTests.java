@@ -0,0 +1,70 @@
+package rest.pkbe.api.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import rest.pkbe.api.dto.response.note.NoteDTO;
+
+/**
+ * Verifica que NoteJsonWriter produzca el mismo JSON que serializar NoteDTO con Jackson,
+ * tanto con el generador UTF-8 de las respuestas HTTP como con uno sobre un Writer.
+ */
+class NoteJsonWriterTests {
+
+	private static final String TITLE = "Canción \"ñandú\" 😀";
+	private static final String CONTENT = "línea 1\nlínea 2\t\\ </script> \u0001";
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 7, 23, 59, 59, 999_999_000);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void writesSameJsonAsNoteDto() throws IOException {
+		List<NoteDTO> expected = List.of(
+			new NoteDTO(1L, TITLE, CONTENT, "2026-03-07", new LinkedHashSet<>(List.of("música", "a\"b"))),
+			new NoteDTO(2L, "sin tags", "c", "2026-03-07", new LinkedHashSet<>()),
+			new NoteDTO(3L, "otro día", "d", "0999-12-31", new LinkedHashSet<>(List.of("x"))));
+		JsonNode expectedJson = objectMapper.readTree(objectMapper.writeValueAsString(expected));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(bytes)) {
+			writeNotes(generator);
+		}
+		assertEquals(expectedJson, objectMapper.readTree(bytes.toString(StandardCharsets.UTF_8)));
+
+		StringWriter text = new StringWriter();
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(text)) {
+			writeNotes(generator);
+		}
+		assertEquals(expectedJson, objectMapper.readTree(text.toString()));
+	}
+
+	private static void writeNotes(JsonGenerator generator) throws IOException {
+		NoteJsonWriter writer = new NoteJsonWriter(generator);
+		generator.writeStartArray();
+		writer.note(1L, utf8(TITLE), utf8(CONTENT), CREATED_AT);
+		writer.tag(utf8("música"));
+		writer.tag(utf8("a\"b"));
+		writer.note(2L, utf8("sin tags"), utf8("c"), CREATED_AT.withHour(0));
+		writer.note(3L, utf8("otro día"), utf8("d"), LocalDateTime.of(999, 12, 31, 10, 0));
+		writer.tag(utf8("x"));
+		writer.finish();
+		generator.writeEndArray();
+	}
+
+	private static byte[] utf8(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
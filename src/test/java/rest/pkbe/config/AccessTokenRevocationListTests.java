@@ -0,0 +1,65 @@
+package rest.pkbe.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import rest.pkbe.domain.repository.RevokedAccessTokenRepository;
+
+/**
+ * Verifica que un token revocado solo se rechace en memoria después del commit y que los tokens que revoca
+ * otra instancia (filas nuevas en la tabla) se agreguen en la siguiente consulta periódica.
+ */
+@SpringBootTest
+class AccessTokenRevocationListTests {
+
+	@Autowired
+	private AccessTokenRevocationList revocationList;
+	@Autowired
+	private RevokedAccessTokenRepository repository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final String committed = UUID.randomUUID().toString();
+	private final String rolledBack = UUID.randomUUID().toString();
+	private final String otherInstance = UUID.randomUUID().toString();
+
+	@AfterEach
+	void tearDown() {
+		repository.deleteAllById(List.of(committed, rolledBack, otherInstance));
+	}
+
+	@Test
+	void revocationIsAppliedOnCommitOnly() {
+		Date expiration = new Date(System.currentTimeMillis() + 60_000);
+		transactionTemplate.executeWithoutResult(status -> {
+			revocationList.revoke(committed, expiration);
+			assertFalse(revocationList.isRevoked(committed));
+		});
+		assertTrue(revocationList.isRevoked(committed));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			revocationList.revoke(rolledBack, expiration);
+			status.setRollbackOnly();
+		});
+		assertFalse(revocationList.isRevoked(rolledBack));
+	}
+
+	@Test
+	void pollAddsTokensRevokedByOtherInstances() {
+		repository.insertIfAbsent(otherInstance, LocalDateTime.now().plusMinutes(1));
+		assertFalse(revocationList.isRevoked(otherInstance));
+		revocationList.poll();
+		assertTrue(revocationList.isRevoked(otherInstance));
+	}
+}
@@ -0,0 +1,65 @@
+package rest.pkbe.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifica el permiso reentrante de {@link ConcurrencyLimitingDataSource} con un solo permiso:
+ * las conexiones anidadas del mismo hilo no esperan, las de otro hilo esperan a que se cierre la última.
+ */
+class ConcurrencyLimitingDataSourceTests {
+
+	private final ConcurrencyLimitingDataSource dataSource =
+		new ConcurrencyLimitingDataSource(stubDataSource(), 1, Duration.ofMillis(200));
+
+	@Test
+	void nestedConnectionsAtTheLimitDoNotWait() {
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			try (Connection outer = dataSource.getConnection()) {
+				try (Connection nested = dataSource.getConnection()) {
+					assertNotNull(nested);
+				}
+				// El permiso sigue tomado mientras la conexión externa esté abierta
+				assertThrows(SQLTransientConnectionException.class, this::getConnectionInOtherThread);
+			}
+			// Al cerrar la última conexión el permiso queda libre para otro hilo
+			getConnectionInOtherThread();
+		});
+	}
+
+	private void getConnectionInOtherThread() throws Exception {
+		try {
+			CompletableFuture.runAsync(() -> {
+				try (Connection connection = dataSource.getConnection()) {
+					assertNotNull(connection);
+				} catch (Exception ex) {
+					throw new RuntimeException(ex);
+				}
+			}).join();
+		} catch (RuntimeException ex) {
+			// CompletionException -> RuntimeException -> SQLException
+			throw (Exception) ex.getCause().getCause();
+		}
+	}
+
+	private static DataSource stubDataSource() {
+		return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+			(proxy, method, args) -> method.getName().equals("getConnection") ? stubConnection() : null);
+	}
+
+	private static Connection stubConnection() {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+			(proxy, method, args) -> null);
+	}
+}
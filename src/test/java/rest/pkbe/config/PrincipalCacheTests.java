@@ -0,0 +1,53 @@
+package rest.pkbe.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import rest.pkbe.domain.model.User;
+import rest.pkbe.domain.repository.UserRepository;
+
+/**
+ * Verifica que la caché de usuarios autenticados se invalide al modificar o eliminar al usuario.
+ */
+@SpringBootTest
+@Transactional
+class PrincipalCacheTests {
+
+	@Autowired
+	private UserDetailsServiceConfig userDetailsService;
+	@Autowired
+	private PrincipalCache principalCache;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void credentialChangeAndDeletionInvalidateCachedPrincipal() {
+		User user = new User();
+		user.setUsername("principal-cache");
+		user.setEmail("principal-cache@pkbe.test");
+		user.setPasswordHash("hash");
+		user = userRepository.saveAndFlush(user);
+
+		AuthenticatedUser principal = userDetailsService.loadPrincipalById(user.getId());
+		assertEquals("principal-cache@pkbe.test", principal.getEmail());
+		assertNotNull(principalCache.get(user.getId()));
+
+		user.setPasswordHash("other-hash");
+		entityManager.flush();
+		assertNull(principalCache.get(user.getId()));
+
+		userDetailsService.loadPrincipalById(user.getId());
+		userRepository.delete(user);
+		entityManager.flush();
+		assertNull(principalCache.get(user.getId()));
+	}
+}
@@ -0,0 +1,53 @@
+package rest.pkbe.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Verificaciones de MockMvc sobre las sentencias SQL y las conexiones de la petición, a partir de los contadores que deja
+ * {@link RequestMetricsFilter} en la petición. Requiere @AutoConfigureMockMvc (con los filtros de la aplicación);
+ * con sql.budget.sample-rate=1 el mensaje de error incluye las huellas de las sentencias ejecutadas.
+ */
+public final class StatementBudgetMatchers {
+
+    private StatementBudgetMatchers() {}
+
+    /**
+     * La petición usó una sola conexión a la vez: nunca tuvo dos abiertas al mismo tiempo
+     * (con el límite de concurrencia y el pool llenos, la segunda conexión esperaría a la primera)
+     */
+    public static ResultMatcher oneConnectionAtATime() {
+        return result -> {
+            RequestMetrics metrics = (RequestMetrics) result.getRequest().getAttribute(RequestMetrics.ATTRIBUTE);
+            assertNotNull(metrics, "RequestMetricsFilter no registró la petición");
+            assertEquals(1, metrics.getMaxOpenConnections(), () -> result.getRequest().getMethod() + " "
+                + result.getRequest().getRequestURI() + " " + result.getRequest().getParameterMap().keySet()
+                + " tuvo varias conexiones abiertas a la vez");
+        };
+    }
+
+    /**
+     * La petición no ejecutó más sentencias que el presupuesto del endpoint ({@link StatementBudget})
+     */
+    public static ResultMatcher withinStatementBudget() {
+        return result -> {
+            RequestMetrics metrics = (RequestMetrics) result.getRequest().getAttribute(RequestMetrics.ATTRIBUTE);
+            assertNotNull(metrics, "RequestMetricsFilter no registró la petición");
+            assertTrue(metrics.getStatementBudget() > 0,
+                () -> result.getRequest().getRequestURI() + " no declara un presupuesto de sentencias");
+            assertFalse(metrics.isOverBudget(), () -> {
+                StringBuilder message = new StringBuilder()
+                    .append(result.getRequest().getMethod()).append(' ').append(result.getRequest().getRequestURI())
+                    .append(" ejecutó ").append(metrics.getStatements())
+                    .append(" sentencias, presupuesto ").append(metrics.getStatementBudget());
+                metrics.getStatementFingerprints().forEach((sql, count) ->
+                    message.append(System.lineSeparator()).append("  ").append(count).append(" x ").append(sql));
+                return message.toString();
+            });
+        };
+    }
+}
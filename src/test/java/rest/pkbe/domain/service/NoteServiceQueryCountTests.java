@@ -0,0 +1,109 @@
+package rest.pkbe.domain.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import rest.pkbe.domain.model.Note;
+import rest.pkbe.domain.model.User;
+import rest.pkbe.domain.repository.UserRepository;
+
+/**
+ * Verifica que las lecturas de notas usen un número fijo de sentencias SQL sin importar
+ * cuántas notas y etiquetas tenga el usuario (sin N+1 al cargar las tags).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class NoteServiceQueryCountTests {
+
+	@Autowired
+	private INoteService noteService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		user = new User();
+		user.setUsername("query-count");
+		user.setEmail("query-count@pkbe.test");
+		user.setPasswordHash("hash");
+		user = userRepository.save(user);
+	}
+
+	@Test
+	void getAllNotesUsesConstantStatementCount() {
+		createNotes(2);
+		long few = countStatements(userId -> noteService.getAllNotes(userId).forEach(this::readTags));
+		createNotes(20);
+		long many = countStatements(userId -> noteService.getAllNotes(userId).forEach(this::readTags));
+		assertEquals(few, many);
+	}
+
+	@Test
+	void getNotesPageUsesConstantStatementCount() {
+		createNotes(2);
+		long few = countStatements(userId -> noteService.getNotesPage(userId, null, 50, Sort.Direction.DESC)
+			.getItems().forEach(this::readTags));
+		createNotes(20);
+		long many = countStatements(userId -> noteService.getNotesPage(userId, null, 50, Sort.Direction.DESC)
+			.getItems().forEach(this::readTags));
+		assertEquals(few, many);
+	}
+
+	@Test
+	void getNoteByIdUsesConstantStatementCount() {
+		Note small = noteService.createNote(user.getId(), newNote(), Set.of("a"));
+		Note big = noteService.createNote(user.getId(), newNote(), Set.of("a", "b", "c", "d", "e", "f"));
+		long few = countStatements(userId -> readTags(noteService.getNoteById(small.getId(), userId)));
+		long many = countStatements(userId -> readTags(noteService.getNoteById(big.getId(), userId)));
+		assertEquals(few, many);
+	}
+
+	private long countStatements(Consumer<Long> read) {
+		// Vaciamos el contexto de persistencia para que las lecturas no se resuelvan desde la caché de primer nivel
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+		read.accept(user.getId());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void createNotes(int count) {
+		for (int i = 0; i < count; i++) {
+			noteService.createNote(user.getId(), newNote(), Set.of("tag-" + i, "tag-" + (i + 1), "comun"));
+		}
+	}
+
+	private Note newNote() {
+		Note note = new Note();
+		note.setTitle("titulo");
+		note.setContent("contenido");
+		return note;
+	}
+
+	private Set<String> readTags(Note note) {
+		// Igual que el mapeo a NoteDTO en NoteController
+		return note.getNoteTags().stream().map(nt -> nt.getTag().getName()).collect(Collectors.toSet());
+	}
+}